@@ -43,7 +43,7 @@ app.get('/api/github-history', async (req, res) => {
                    developer_name, important_code_content, approval_number, target_server, env_type,
                    stage_type, test_apply_date, prod_apply_date, submitted_date, approved_date,
                    rejected_date, rejection_reason, prod_scheduled_date, approver, work_content,
-                   approval_reason
+                   approval_reason, status
             FROM github_history
             WHERE 1=1
         `;
@@ -59,17 +59,11 @@ app.get('/api/github-history', async (req, res) => {
             paramIndex += 3;
         }
         
-        // 상태 필터
-        if (status && status !== '전체') {
-            if (status === '제출됨') {
-                sql += ` AND submitted_date IS NOT NULL AND approved_date IS NULL AND rejected_date IS NULL`;
-            } else if (status === '승인됨') {
-                sql += ` AND approved_date IS NOT NULL`;
-            } else if (status === '반려됨') {
-                sql += ` AND rejected_date IS NOT NULL`;
-            } else if (status === '대기중') {
-                sql += ` AND submitted_date IS NULL`;
-            }
+        // 상태 필터 (status 컬럼, Java 서블릿과 같은 기준)
+        if (status && ['대기중', '제출됨', '승인됨', '반려됨'].includes(status)) {
+            sql += ` AND status = $${paramIndex}`;
+            params.push(status);
+            paramIndex++;
         }
         
         // 환경 타입 필터
@@ -90,26 +84,9 @@ app.get('/api/github-history', async (req, res) => {
         
         const result = await pool.query(sql, params);
         
-        // 상태 계산
-        const rows = result.rows.map(row => {
-            let status = '대기중';
-            if (row.submitted_date && !row.approved_date && !row.rejected_date) {
-                status = '제출됨';
-            } else if (row.approved_date) {
-                status = '승인됨';
-            } else if (row.rejected_date) {
-                status = '반려됨';
-            }
-            
-            return {
-                ...row,
-                status: status
-            };
-        });
-        
         res.json({
             ok: true,
-            rows: rows
+            rows: result.rows
         });
     } catch (error) {
         console.error('목록 조회 오류:', error);
@@ -130,7 +107,7 @@ app.get('/api/github-history/:id', async (req, res) => {
                     developer_name, important_code_content, approval_number, target_server, env_type,
                     stage_type, test_apply_date, prod_apply_date, submitted_date, approved_date,
                     rejected_date, rejection_reason, prod_scheduled_date, approver, work_content,
-                    approval_reason
+                    approval_reason, status
              FROM github_history
              WHERE id = $1`,
             [id]
@@ -143,22 +120,9 @@ app.get('/api/github-history/:id', async (req, res) => {
             });
         }
         
-        const row = result.rows[0];
-        let status = '대기중';
-        if (row.submitted_date && !row.approved_date && !row.rejected_date) {
-            status = '제출됨';
-        } else if (row.approved_date) {
-            status = '승인됨';
-        } else if (row.rejected_date) {
-            status = '반려됨';
-        }
-        
         res.json({
             ok: true,
-            row: {
-                ...row,
-                status: status
-            }
+            row: result.rows[0]
         });
     } catch (error) {
         console.error('상세 조회 오류:', error);
@@ -202,6 +166,17 @@ app.put('/api/github-history/:id', async (req, res) => {
             });
         }
         
+        // 결재 일자를 바꾸면 status 컬럼도 같이 갱신 (반려 > 승인 > 제출 > 대기, migrations/20261018_github_history_status.sql)
+        const dateExpr = (field) => {
+            const i = allowedFields.filter(f => updateData.hasOwnProperty(f)).indexOf(field);
+            return i >= 0 ? `$${i + 1}::timestamp` : field;
+        };
+        if (['submitted_date', 'approved_date', 'rejected_date'].some(f => updateData.hasOwnProperty(f))) {
+            updateFields.push(`status = CASE WHEN ${dateExpr('rejected_date')} IS NOT NULL THEN '반려됨'
+                WHEN ${dateExpr('approved_date')} IS NOT NULL THEN '승인됨'
+                WHEN ${dateExpr('submitted_date')} IS NOT NULL THEN '제출됨' ELSE '대기중' END`);
+        }
+
         // updated_at 자동 업데이트
         updateFields.push(`updated_at = CURRENT_TIMESTAMP`);
         
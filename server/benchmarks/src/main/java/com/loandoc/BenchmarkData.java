@@ -0,0 +1,161 @@
+package com.loandoc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 벤치마크용 고정 데이터 (시드 고정: 실행할 때마다 같은 은행/요청 조합)
+ */
+final class BenchmarkData {
+
+    // 은행 심사 중 INFO/WARNING 로그가 측정을 흐리지 않도록 끔 (참조를 잡아 둬야 설정 유지)
+    // System.out 은 끌 수 없으므로 심사 경로의 추적 출력은 DebugLog로만 남긴다 (KB저축은행 의료보험 검증 포함)
+    private static final Logger APP_LOGGER = Logger.getLogger("com.loandoc");
+
+    static {
+        APP_LOGGER.setLevel(Level.OFF);
+    }
+
+    static final String[] NATIONALITIES = {
+        "Vietnam", "Nepal", "Cambodia", "China", "India", "Philippines", "Uzbekistan", "Indonesia",
+        "Myanmar", "Sri Lanka", "Republic of Kazakhstan", "Timor-Leste", "Mongolia", "Laos"
+    };
+
+    static final String[] VISA_TYPES = {
+        "E-9", "E-7", "F-2", "F-4", "F-5", "F-6", "E 4", "h2", "D-10", "E9"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /** 화면에서 넘어오는 요청 한 건 (LoanEstimateServlet.doPost 파라미터) */
+    static final class Request {
+        final String visaType;
+        final String nationality;
+        final int remainMonths;
+        final double annualIncome;
+        final int age;
+        final int workingMonths;
+        final String healthInsurance;
+
+        Request(String visaType, String nationality, int remainMonths, double annualIncome, int age, int workingMonths,
+                String healthInsurance) {
+            this.visaType = visaType;
+            this.nationality = nationality;
+            this.remainMonths = remainMonths;
+            this.annualIncome = annualIncome;
+            this.age = age;
+            this.workingMonths = workingMonths;
+            this.healthInsurance = healthInsurance;
+        }
+    }
+
+    /**
+     * 국적 × 비자 전체 조합. 나머지 값은 시드 고정 난수
+     */
+    static Request[] requests() {
+        Random random = new Random(42);
+        List<Request> requests = new ArrayList<>();
+        for (String nationality : NATIONALITIES) {
+            for (String visa : VISA_TYPES) {
+                requests.add(new Request(visa, nationality, 1 + random.nextInt(36), 1200 + random.nextInt(3000),
+                        18 + random.nextInt(40), random.nextInt(60), random.nextInt(4) == 0 ? "지역" : "직장"));
+            }
+        }
+        return requests.toArray(new Request[0]);
+    }
+
+    /**
+     * 운영 설정 5개 은행을 본떠 count 개를 만든다. 모든 은행이 본뜬 은행 이름을 그대로 써서
+     * 은행별 규칙(EligibilityRules는 은행명으로 조회)과 KB저축은행 의료보험 검증이 5개 중 1개씩 적용된다.
+     * 은행마다 rank/comm 을 다르게 하고, 비어 있거나 장애(음수)인 경우를 섞는다.
+     */
+    static List<BankConfig> banks(int count) {
+        Random random = new Random(7);
+        List<BankConfig> banks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int t = i % 5;
+            String name = template(t);
+            Integer rank = random.nextInt(6) == 0 ? null : 1 + random.nextInt(20);
+            int commRoll = random.nextInt(10);
+            Integer comm = commRoll == 0 ? null : commRoll == 1 ? -1 : 20 + random.nextInt(800);
+            switch (t) {
+                case 0:
+                    banks.add(new BankConfig(name, rank, new String[] {"E7", "E9", "F2", "F6", "F5"},
+                            null, new String[] {"Nepal", "Cambodia"}, 19, null, 8, 3, 1500,
+                            2000.0, 14.7, 0.35, 3000.0, comm));
+                    break;
+                case 1:
+                    banks.add(new BankConfig(name, rank, new String[] {"E7", "E9", "F2", "F6", "F5", "F4"},
+                            null, null, 19, null, 6, 6, 2000,
+                            2000.0, 13.07, 0.36, 5000.0, comm));
+                    break;
+                case 2:
+                    banks.add(new BankConfig(name, rank, new String[] {"E9"},
+                            null, null, 18, 45, 0, 0, 0,
+                            2000.0, 15.0, 0.37, 3500.0, comm));
+                    break;
+                case 3:
+                    banks.add(new BankConfig(name, rank, new String[] {"E9", "E7"},
+                            new String[] {"China"}, null, 0, null, 1, 0, 0,
+                            2000.0, 16.0, 0.36, 3000.0, comm));
+                    break;
+                default:
+                    banks.add(new BankConfig(name, rank, new String[] {"E7", "E9", "F2", "F6", "F5"},
+                            null, null, 20, null, 0, 0, 0,
+                            null, null, 0.38, 4000.0, comm));
+                    break;
+            }
+        }
+        return banks;
+    }
+
+    private static String template(int t) {
+        switch (t) {
+            case 0:
+                return "KB저축은행";
+            case 1:
+                return "전북은행";
+            case 2:
+                return "OK저축은행";
+            case 3:
+                return "웰컴저축은행";
+            default:
+                return "예가람저축은행";
+        }
+    }
+
+    /**
+     * bank_info 에서 읽히는 은행명 형태별 샘플 (BankInfoServlet.fixEncoding 입력)
+     */
+    static String[] encodingSamples(String kind) {
+        String[] korean = {"웰컴저축은행", "KB저축은행", "전북은행", "예가람저축은행", "OK저축은행"};
+        String[] ascii = {"OK Savings Bank", "KB Bank", "Welcome", "JB Bank 2", "Yegaram"};
+        String[] mojibake = new String[korean.length];
+        for (int i = 0; i < korean.length; i++) {
+            // UTF-8 바이트를 ISO-8859-1로 잘못 읽은 값 (예: "ì\u009b°ì»´...")
+            mojibake[i] = new String(korean[i].getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+        }
+        String[] broken = {"??????", "???? ????", "?? Bank", "????-2", "???"};
+        switch (kind) {
+            case "korean":
+                return korean;
+            case "ascii":
+                return ascii;
+            case "mojibake":
+                return mojibake;
+            case "broken":
+                return broken;
+            default:
+                // 운영 데이터 비율 가정: 대부분 정상, 일부 깨짐
+                return new String[] {
+                    korean[0], korean[1], korean[2], korean[3], korean[4], ascii[0], ascii[1],
+                    mojibake[0], mojibake[3], broken[0]
+                };
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.loandoc;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * java -jar target/benchmarks.jar [JMH 옵션]
+ * JMH 기본 실행과 같고, 처리량 옆에 할당량(gc.alloc.rate.norm)이 나오도록 gc 프로파일러를 항상 켠다.
+ * 예: java -jar target/benchmarks.jar LoanEstimateBenchmark -p bankCount=500 -rf json -rff result.json
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
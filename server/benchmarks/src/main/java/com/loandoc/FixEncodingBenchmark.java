@@ -0,0 +1,46 @@
+package com.loandoc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BankInfoServlet.fixEncoding 입력 형태별 비용
+ * korean/ascii 는 변환 없이 돌아가는 경로, mojibake/broken 은 인코딩 재해석 경로, mixed 는 섞은 것
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FixEncodingBenchmark {
+
+    @Param({"korean", "ascii", "mojibake", "broken", "mixed"})
+    String kind;
+
+    private String[] samples;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = BenchmarkData.encodingSamples(kind);
+    }
+
+    @Benchmark
+    public String fixEncoding() {
+        next = next + 1 == samples.length ? 0 : next + 1;
+        return BankInfoServlet.fixEncoding(samples[next]);
+    }
+}
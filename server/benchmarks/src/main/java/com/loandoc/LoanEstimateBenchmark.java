@@ -0,0 +1,222 @@
+package com.loandoc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * LoanEstimateServlet / LoanEstimator 요청 처리 단계별 비용 (DB/HTTP 제외)
+ *
+ * 요청은 국적 × 비자 조합을 순서대로 돌려 가며 사용하고, 은행 수는 5 ~ 500.
+ * legacyTree* 는 ObjectNode 결과 + has()/get() 비교 정렬 + writeValueAsString 으로 쓰던
+ * 이전 방식이며, 현재 방식(BankResult + JsonGenerator)과 비교용이다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Dcatalina.base=target/bench-home"})
+@State(Scope.Thread)
+public class LoanEstimateBenchmark {
+
+    @Param({"5", "50", "500"})
+    int bankCount;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    private BenchmarkData.Request[] requests;
+    private List<BankConfig> banks;
+    private EligibilityRules rules;
+    private EligibilityMatrix matrix;
+    private int next;
+
+    // 정렬/출력 단계만 잴 때 쓰는 미리 계산된 결과 (첫 요청 기준)
+    private List<BankResult> results;
+    private EligibilityRules.Applicant sampleApplicant;
+    private ObjectNode sampleFlags;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        requests = BenchmarkData.requests();
+        banks = BenchmarkData.banks(bankCount);
+        rules = EligibilityRules.builtin();
+        matrix = EligibilityMatrix.build(banks, rules);
+        BenchmarkData.Request r = requests[0];
+        sampleApplicant = EligibilityRules.applicant(VisaCode.normalize(r.visaType), r.nationality);
+        sampleFlags = LoanEstimator.countryDebugFlags(sampleApplicant);
+        results = evaluate(r, sampleApplicant);
+    }
+
+    private BenchmarkData.Request nextRequest() {
+        BenchmarkData.Request r = requests[next];
+        next = next + 1 == requests.length ? 0 : next + 1;
+        return r;
+    }
+
+    private List<BankResult> evaluate(BenchmarkData.Request r, EligibilityRules.Applicant applicant) {
+        return evaluate(r, applicant, matrix);
+    }
+
+    private List<BankResult> evaluate(BenchmarkData.Request r, EligibilityRules.Applicant applicant,
+            EligibilityMatrix m) {
+        EstimateProfile profile = new EstimateProfile(VisaCode.normalize(r.visaType), r.nationality, r.remainMonths,
+                r.annualIncome, r.age, r.workingMonths, r.healthInsurance, false);
+        return LoanEstimator.evaluate(banks, rules, m, applicant, profile);
+    }
+
+    @Benchmark
+    public List<BankResult> processBanks() {
+        BenchmarkData.Request r = nextRequest();
+        return evaluate(r, EligibilityRules.applicant(VisaCode.normalize(r.visaType), r.nationality));
+    }
+
+    /** 사전 계산표 없이 은행마다 규칙 조회 + 비자/국적 직접 계산 (스냅샷 교체 직후 경로) */
+    @Benchmark
+    public List<BankResult> processBanksDirect() {
+        BenchmarkData.Request r = nextRequest();
+        return evaluate(r, EligibilityRules.applicant(VisaCode.normalize(r.visaType), r.nationality), null);
+    }
+
+    @Benchmark
+    public EligibilityMatrix buildMatrix() {
+        return EligibilityMatrix.build(banks, rules);
+    }
+
+    @Benchmark
+    public List<BankResult> rankAll() {
+        return BankResult.ranked(new ArrayList<>(results), 0);
+    }
+
+    @Benchmark
+    public List<BankResult> rankTop10() {
+        return BankResult.ranked(new ArrayList<>(results), 10);
+    }
+
+    @Benchmark
+    public int writeStreaming() throws IOException {
+        out.reset();
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            LoanEstimator.writeBanks(gen, results, sampleApplicant, sampleFlags);
+            gen.writeEndObject();
+        }
+        return out.size();
+    }
+
+    /** 요청 한 건 전체: 비자/국적 변환 -> 은행별 심사 -> 정렬 -> 출력 */
+    @Benchmark
+    public int pipeline() throws IOException {
+        BenchmarkData.Request r = nextRequest();
+        EligibilityRules.Applicant applicant = EligibilityRules.applicant(VisaCode.normalize(r.visaType), r.nationality);
+        ObjectNode flags = LoanEstimator.countryDebugFlags(applicant);
+        List<BankResult> ranked = BankResult.ranked(evaluate(r, applicant), 0);
+        out.reset();
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            LoanEstimator.writeBanks(gen, ranked, applicant, flags);
+            gen.writeEndObject();
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public List<ObjectNode> legacyTreeSort() {
+        List<ObjectNode> nodes = toTree(results);
+        nodes.sort(LoanEstimateBenchmark::legacyCompare);
+        return nodes;
+    }
+
+    @Benchmark
+    public int legacyTreeWrite() throws IOException {
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode array = response.putArray("banks");
+        for (ObjectNode node : toTree(results)) {
+            array.add(node);
+        }
+        return mapper.writeValueAsString(response).length();
+    }
+
+    private List<ObjectNode> toTree(List<BankResult> list) {
+        List<ObjectNode> nodes = new ArrayList<>(list.size());
+        for (BankResult r : list) {
+            ObjectNode node = mapper.createObjectNode();
+            node.put("bankName", r.bankName());
+            putCheck(node, "visaType", r.passed(BankResult.VISA_TYPE), r.visaTypeError());
+            putCheck(node, "country", r.passed(BankResult.COUNTRY), r.countryError());
+            ObjectNode countryDebug = node.putObject("countryDebug");
+            countryDebug.put("natLower", sampleApplicant.natLower);
+            countryDebug.put("countryValidComputed", r.countryValidComputed());
+            countryDebug.setAll(sampleFlags);
+            putCheck(node, "age", r.passed(BankResult.AGE), "E나이");
+            putCheck(node, "visaExpiry", r.passed(BankResult.VISA_EXPIRY), "E비자만료");
+            putCheck(node, "employmentDate", r.passed(BankResult.EMPLOYMENT_DATE), "E재직일자");
+            putCheck(node, "annualIncome", r.passed(BankResult.ANNUAL_INCOME), "E연소득");
+            node.put("estimatedLimit", r.estimatedLimit());
+            node.put("estimatedRate", r.estimatedRate());
+            if (r.rank() == BankResult.NONE) {
+                node.putNull("rank");
+            } else {
+                node.put("rank", r.rank());
+            }
+            if (r.comm() == BankResult.NONE) {
+                node.putNull("comm");
+            } else {
+                node.put("comm", r.comm());
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private void putCheck(ObjectNode node, String field, boolean valid, String error) {
+        ObjectNode check = node.putObject(field);
+        check.put("valid", valid);
+        check.put("error", valid ? "" : error);
+    }
+
+    private static int legacyCompare(ObjectNode a, ObjectNode b) {
+        int rankA = a.has("rank") && !a.get("rank").isNull() ? a.get("rank").asInt() : 999;
+        int rankB = b.has("rank") && !b.get("rank").isNull() ? b.get("rank").asInt() : 999;
+        int rankCompare = Integer.compare(rankA, rankB);
+        if (rankCompare != 0) {
+            return rankCompare;
+        }
+        int commA = 999999;
+        int commB = 999999;
+        if (a.has("comm") && !a.get("comm").isNull()) {
+            commA = a.get("comm").asInt();
+            if (commA < 0) {
+                commA = 999999;
+            }
+        }
+        if (b.has("comm") && !b.get("comm").isNull()) {
+            commB = b.get("comm").asInt();
+            if (commB < 0) {
+                commB = 999999;
+            }
+        }
+        return Integer.compare(commA, commB);
+    }
+}
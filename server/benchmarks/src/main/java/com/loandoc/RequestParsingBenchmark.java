@@ -0,0 +1,42 @@
+package com.loandoc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 요청당 한 번 하는 비자/국적 변환 (normalizeVisaType -> VisaCode, 국적 -> CountryCode)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RequestParsingBenchmark {
+
+    private final String[] visas = BenchmarkData.VISA_TYPES;
+    private final String[] nationalities = BenchmarkData.NATIONALITIES;
+    private int next;
+
+    @Benchmark
+    public String normalizeVisaType() {
+        next = next + 1 == visas.length ? 0 : next + 1;
+        return VisaCode.normalize(visas[next]);
+    }
+
+    @Benchmark
+    public EligibilityRules.Applicant applicant() {
+        next = next + 1 == nationalities.length * visas.length ? 0 : next + 1;
+        return EligibilityRules.applicant(VisaCode.normalize(visas[next % visas.length]),
+                nationalities[next / visas.length]);
+    }
+}
@@ -0,0 +1,22 @@
+-- Migration: 결재번호 날짜별 카운터
+-- Date: 2026-10-18
+-- 결재번호(YYYYMMDD-NNN)는 오늘 제출 건수 COUNT(*) + 1 로 만들어 동시 제출 시 중복이 났다.
+-- 날짜별 카운터 행을 UPSERT ... RETURNING 으로 올려 번호 블록을 받는다 (ApprovalNumbers.java).
+-- 행 잠금 아래에서 올리므로 여러 서버 인스턴스가 동시에 받아도 블록이 겹치지 않는다.
+
+CREATE TABLE IF NOT EXISTS approval_number_counter (
+    day DATE PRIMARY KEY,
+    last_value INTEGER NOT NULL
+);
+
+COMMENT ON TABLE approval_number_counter IS '결재번호 날짜별 마지막 발급 번호';
+COMMENT ON COLUMN approval_number_counter.day IS '결재번호 날짜 (YYYYMMDD)';
+COMMENT ON COLUMN approval_number_counter.last_value IS '지금까지 발급(예약)한 마지막 일련번호';
+
+-- 이미 발급된 번호 다음부터 이어서 발급되도록 기존 결재번호로 채움
+INSERT INTO approval_number_counter (day, last_value)
+SELECT to_date(split_part(approval_number, '-', 1), 'YYYYMMDD'), max(split_part(approval_number, '-', 2)::int)
+  FROM github_history
+ WHERE approval_number ~ '^[0-9]{8}-[0-9]+$'
+ GROUP BY 1
+ON CONFLICT (day) DO UPDATE SET last_value = greatest(approval_number_counter.last_value, EXCLUDED.last_value);
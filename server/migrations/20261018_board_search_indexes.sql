@@ -0,0 +1,39 @@
+-- Migration: 게시판(dashboard, loan_dashboard) 검색 인덱스
+-- Date: 2026-10-18
+-- 검색어 q 를 ILIKE '%q%' 순차 스캔 대신 GIN 인덱스로 처리한다 (BoardSearch.java).
+--   3글자 이상 검색어 : lower(문서) LIKE '%검색어%'                      → pg_trgm 트라이그램 GIN
+--   1~2글자 검색어    : board_ngrams(lower(문서)) @> ARRAY['검색어'] → 글자 1-gram/2-gram 배열 GIN
+-- 둘 다 기존 ILIKE '%q%'와 같은 부분 문자열 일치다 ("대출" → "주택대출", "신용대출한도").
+-- 한국어는 형태소 분석 없이 글자 n-gram으로 찾으므로 조사가 붙은 단어("대출은")도 찾는다.
+--
+-- 주의: 아래 인덱스 표현식은 BoardSearch.Board 의 문서 표현식과 글자 하나까지 같아야 한다.
+--       (다르면 인덱스를 타지 않고 순차 스캔으로 돌아감)
+-- 운영 중 적용 시 CONCURRENTLY 로 테이블 잠금을 피한다 (트랜잭션 밖에서 실행).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 공백이 없는 글자 1-gram, 2-gram 전체 (중복 제거). 1~2글자 검색어의 부분 문자열 검색용
+CREATE OR REPLACE FUNCTION board_ngrams(doc text) RETURNS text[]
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE AS $$
+    SELECT coalesce(array_agg(DISTINCT g.gram), '{}')
+    FROM generate_series(1, 2) AS n,
+         LATERAL (SELECT substr(doc, i, n) AS gram FROM generate_series(1, length(doc) - n + 1) AS i) AS g
+    WHERE g.gram !~ '\s'
+$$;
+
+-- dashboard: 제목 + 본문 + 작성자
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_dashboard_search_trgm
+    ON dashboard USING gin (lower(coalesce(title, '') || ' ' || coalesce(content, '') || ' ' || coalesce(author, '')) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_dashboard_search_ngram
+    ON dashboard USING gin (board_ngrams(lower(coalesce(title, '') || ' ' || coalesce(content, '') || ' ' || coalesce(author, ''))));
+
+-- loan_dashboard: 제목 + 본문 + 요청자 + 이름
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_dashboard_search_trgm
+    ON loan_dashboard USING gin (lower(coalesce(title, '') || ' ' || coalesce(content, '') || ' ' || coalesce(req_login, '') || ' ' || coalesce(name, '')) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_dashboard_search_ngram
+    ON loan_dashboard USING gin (board_ngrams(lower(coalesce(title, '') || ' ' || coalesce(content, '') || ' ' || coalesce(req_login, '') || ' ' || coalesce(name, ''))));
+
+ANALYZE dashboard;
+ANALYZE loan_dashboard;
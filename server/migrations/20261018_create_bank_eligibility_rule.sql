@@ -0,0 +1,49 @@
+-- 은행별 비자/국적 심사 규칙 테이블
+-- LoanEstimateServlet.processBank에 하드코딩되어 있던 은행명 분기를 데이터로 옮긴다.
+-- 서버는 기동 시(및 TTL/관리 API 갱신 시) 규칙을 읽어 은행별 비트마스크로 컴파일한다.
+--   ALLOW_VISA      : visa_types 중 하나여야 대출 가능 (아니면 E비자종류)
+--   REQUIRE_COUNTRY : 국적이 countries 중 하나여야 대출 가능 (아니면 E국가)
+--   DENY            : 비자가 visa_types 중 하나이고 국적이 countries 중 하나면 불가 (E국가비자)
+-- visa_types/countries 값은 VisaCode, CountryCode의 코드/별칭과 정확히 일치해야 한다.
+-- 알 수 없는 값이 있으면 POST /api/server/eligibility-rules 가 400으로 알려 주고 이전 규칙을 유지한다
+-- (서버 기동 직후처럼 이전 규칙이 없으면 해당 은행은 모두 불가).
+CREATE TABLE IF NOT EXISTS bank_eligibility_rule (
+    id SERIAL PRIMARY KEY,
+    bank_name VARCHAR(100) NOT NULL,
+    rule_type VARCHAR(20) NOT NULL CHECK (rule_type IN ('ALLOW_VISA', 'REQUIRE_COUNTRY', 'DENY')),
+    visa_types VARCHAR(10)[],
+    countries VARCHAR(50)[],
+    error_code VARCHAR(20),
+    description VARCHAR(200),
+    use_it INT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE bank_eligibility_rule IS '은행별 비자/국적 심사 규칙 (대출 견적 규칙 엔진)';
+COMMENT ON COLUMN bank_eligibility_rule.bank_name IS '은행명 (bank_info.bank_name과 동일)';
+COMMENT ON COLUMN bank_eligibility_rule.rule_type IS '규칙 종류 (ALLOW_VISA, REQUIRE_COUNTRY, DENY)';
+COMMENT ON COLUMN bank_eligibility_rule.visa_types IS '비자종류 배열 (E-9, E9 모두 허용)';
+COMMENT ON COLUMN bank_eligibility_rule.countries IS '국적 배열 (영문 국가명/별칭 또는 ISO 코드, 대소문자 무시 정확히 일치)';
+COMMENT ON COLUMN bank_eligibility_rule.error_code IS '불가 시 오류코드 (미입력 시 규칙 종류별 기본값)';
+COMMENT ON COLUMN bank_eligibility_rule.description IS '설명';
+COMMENT ON COLUMN bank_eligibility_rule.use_it IS '사용여부 (1: 사용, 0: 미사용)';
+
+CREATE INDEX IF NOT EXISTS idx_bank_eligibility_rule_bank ON bank_eligibility_rule(bank_name) WHERE use_it = 1;
+
+-- 기존 하드코딩 규칙 이관 (규칙이 하나도 없을 때만: 다시 실행해도 중복되지 않음)
+INSERT INTO bank_eligibility_rule (bank_name, rule_type, visa_types, countries, error_code, description)
+SELECT v.bank_name, v.rule_type, v.visa_types, v.countries, v.error_code, v.description
+FROM (VALUES
+    ('예가람저축은행', 'ALLOW_VISA', ARRAY['E-7', 'E-9', 'F-2', 'F-6', 'F-5'], NULL, 'E비자종류', 'E-7, E-9, F-2, F-6, F-5 만 대출승인'),
+    ('웰컴저축은행', 'ALLOW_VISA', ARRAY['E-7', 'E-9'], NULL, 'E비자종류', 'E-7, E-9 만 대출승인'),
+    ('OK저축은행', 'ALLOW_VISA', ARRAY['E-9'], NULL, 'E비자종류', 'E-9 만 대출승인'),
+    ('KB저축은행', 'ALLOW_VISA', ARRAY['E-7', 'E-9', 'F-2', 'F-6', 'F-5'], NULL, 'E비자종류', 'E-7, E-9, F-2, F-6, F-5 만 허용'),
+    ('KB저축은행', 'REQUIRE_COUNTRY', NULL, ARRAY['nepal', 'cambodia'], 'E국가', '네팔, 캄보디아 국적만 허용'),
+    ('전북은행', 'DENY', ARRAY['E-9'], ARRAY['china', 'india'], 'E국가비자', 'E-9 + 중국/인도 불가'),
+    ('전북은행', 'DENY', ARRAY['E-4'], ARRAY['pakistan', 'kyrgyz', 'laos', 'timor'], 'E국가비자', 'E-4 + 파키스탄/키르기스스탄/라오스/동티모르 불가'),
+    ('전북은행', 'DENY', ARRAY['F-4'], ARRAY['india', 'vietnam', 'philippine', 'cambodia', 'nepal', 'indonesia',
+        'myanmar', 'burma', 'bangladesh', 'thailand', 'sri lanka', 'srilanka', 'pakistan', 'kyrgyz', 'laos', 'timor'], 'E국가비자', 'F-4 + 제한 국가 불가'),
+    ('전북은행', 'DENY', ARRAY['F-2', 'F-5', 'F-6'], ARRAY['india'], 'E국가비자', 'F-2/F-5/F-6 + 인도 불가')
+) AS v(bank_name, rule_type, visa_types, countries, error_code, description)
+WHERE NOT EXISTS (SELECT 1 FROM bank_eligibility_rule);
@@ -0,0 +1,20 @@
+-- Migration: dashboard 목록 키셋 페이지용 인덱스
+-- Date: 2026-10-18
+-- GET /api/dashboard 는 ORDER BY created_at DESC, msg_id DESC LIMIT n 과
+-- (created_at, msg_id) < (?, ?) 조건으로 페이지를 읽는다. 같은 순서의 복합 인덱스가 있으면
+-- 페이지 깊이와 상관없이 인덱스 앞부분만 읽고 끝난다.
+-- 운영 중 적용 시 테이블 잠금을 피하려면 CONCURRENTLY 사용 (트랜잭션 밖에서 실행).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_dashboard_created_at_msg_id
+    ON dashboard (created_at DESC, msg_id DESC);
+
+-- 구분(msg_type) 필터 목록
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_dashboard_msg_type_created_at_msg_id
+    ON dashboard (msg_type, created_at DESC, msg_id DESC);
+
+-- 위 인덱스로 대체됨
+DROP INDEX CONCURRENTLY IF EXISTS idx_dashboard_created_at;
+DROP INDEX CONCURRENTLY IF EXISTS idx_dashboard_msg_type;
+
+-- 실행계획 기반 예상 건수(count=approx)가 맞도록 통계 갱신
+ANALYZE dashboard;
@@ -0,0 +1,7 @@
+-- Migration: dashboard 조회수 컬럼
+-- Date: 2026-10-18
+-- 조회수는 ViewCounter 가 메모리에서 모아 주기적으로 views = views + delta 로 반영한다.
+-- 컬럼이 이미 있으면 건너뛰고, NULL 로 남은 값은 0으로 맞춘다.
+
+ALTER TABLE dashboard ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+UPDATE dashboard SET views = 0 WHERE views IS NULL;
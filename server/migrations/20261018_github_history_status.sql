@@ -0,0 +1,51 @@
+-- Migration: github_history 결재 상태 컬럼 + 상태별 부분 인덱스
+-- Date: 2026-10-18
+-- 형상관리 목록은 submitted_date/approved_date/rejected_date 의 NULL 조합으로 상태를 매번 계산했다.
+-- 상태를 status 컬럼에 저장하고 (제출/승인/반려 시 ConfigurationManagementServlet 이 함께 갱신),
+-- 상태별 부분 인덱스로 "상태 필터 + 최신순 키셋 페이지" 를 인덱스 앞부분만 읽고 끝낸다.
+--
+-- 주의: 정렬 키 표현식 coalesce(change_datetime, '-infinity'::timestamp) 와 부분 인덱스 조건은
+--       ConfigurationManagementServlet.SORT_KEY / STATUS_* 와 글자 그대로 같아야 인덱스를 탄다.
+-- 인덱스는 CONCURRENTLY 로 만들기 때문에 이 파일은 트랜잭션 밖에서 실행한다.
+
+ALTER TABLE github_history ADD COLUMN IF NOT EXISTS status VARCHAR(10);
+
+-- 기존 행: 예전 계산 순서(반려 > 승인 > 제출 > 대기)와 같게 채움
+UPDATE github_history
+   SET status = CASE
+                    WHEN rejected_date IS NOT NULL THEN '반려됨'
+                    WHEN approved_date IS NOT NULL THEN '승인됨'
+                    WHEN submitted_date IS NOT NULL THEN '제출됨'
+                    ELSE '대기중'
+                END
+ WHERE status IS NULL;
+
+ALTER TABLE github_history ALTER COLUMN status SET DEFAULT '대기중';
+ALTER TABLE github_history ALTER COLUMN status SET NOT NULL;
+
+COMMENT ON COLUMN github_history.status IS '결재 상태 (대기중/제출됨/승인됨/반려됨)';
+
+-- 전체 목록
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_github_history_sort
+    ON github_history ((coalesce(change_datetime, '-infinity'::timestamp)) DESC, id DESC);
+
+-- 상태별 목록 (부분 인덱스: 해당 상태 행만 담아 작고, 상태가 바뀌면 인덱스 사이를 옮겨 감)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_github_history_pending
+    ON github_history ((coalesce(change_datetime, '-infinity'::timestamp)) DESC, id DESC) WHERE status = '대기중';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_github_history_submitted
+    ON github_history ((coalesce(change_datetime, '-infinity'::timestamp)) DESC, id DESC) WHERE status = '제출됨';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_github_history_approved
+    ON github_history ((coalesce(change_datetime, '-infinity'::timestamp)) DESC, id DESC) WHERE status = '승인됨';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_github_history_rejected
+    ON github_history ((coalesce(change_datetime, '-infinity'::timestamp)) DESC, id DESC) WHERE status = '반려됨';
+
+-- 상태별 건수(GET /api/config_management/counts) 집계용
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_github_history_status
+    ON github_history (status);
+
+-- 위 인덱스로 대체됨 (상태 필터는 더 이상 날짜 컬럼 NULL 여부로 찾지 않음)
+DROP INDEX CONCURRENTLY IF EXISTS idx_github_history_change_datetime;
+DROP INDEX CONCURRENTLY IF EXISTS idx_github_history_approved_date;
+DROP INDEX CONCURRENTLY IF EXISTS idx_github_history_rejected_date;
+
+ANALYZE github_history;
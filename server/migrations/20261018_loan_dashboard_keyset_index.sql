@@ -0,0 +1,13 @@
+-- Migration: loan_dashboard 목록 키셋 페이지/유형별 건수용 인덱스
+-- Date: 2026-10-18
+-- GET /api/loan_dashboard 는 req_id < ? (또는 > ?) ORDER BY req_id LIMIT n 으로 페이지를 읽는다.
+-- 전체 목록은 기본키(req_id) 인덱스로 충분하고, 유형 필터 목록은 (req_type, req_id) 복합 인덱스로
+-- 필터와 정렬을 한 번에 처리해 페이지 깊이와 상관없이 인덱스 앞부분만 읽고 끝난다.
+-- 같은 인덱스로 facets=true 의 req_type별 count(*) 집계도 인덱스 전용 스캔이 된다.
+-- 운영 중 적용 시 테이블 잠금을 피하려면 CONCURRENTLY 사용 (트랜잭션 밖에서 실행).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_dashboard_req_type_req_id
+    ON loan_dashboard (req_type, req_id);
+
+-- 인덱스 전용 스캔을 위해 visibility map 갱신
+VACUUM (ANALYZE) loan_dashboard;
@@ -0,0 +1,82 @@
+package com.loandoc;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Logger;
+
+/**
+ * 결재번호(YYYYMMDD-001) 발급기
+ *
+ * 날짜별 카운터 행(approval_number_counter)에서 번호를 APPROVAL_NUMBER_BLOCK(기본 20)개씩 한 번의
+ * UPSERT로 받아 두고 메모리에서 나눠 준다. 블록은 행 잠금 아래에서 last_value를 올려 받으므로
+ * 여러 요청/여러 서버 인스턴스가 동시에 제출해도 번호가 겹치지 않는다.
+ *
+ * - 날짜가 바뀌면 새 날짜 행에서 1번부터 다시 받는다.
+ * - 서버가 재시작되면 받아 두고 쓰지 않은 번호는 건너뛴다 (번호에 빈 곳이 생길 수 있음).
+ * - 인스턴스가 여럿이면 번호 순서와 제출 순서가 다를 수 있다.
+ */
+final class ApprovalNumbers {
+    private static final Logger logger = Logger.getLogger(ApprovalNumbers.class.getName());
+
+    private static final int BLOCK = readBlock();
+    private static final DateTimeFormatter PREFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // 아래는 클래스 잠금 아래에서만 사용
+    private static LocalDate day;
+    private static int next;
+    private static int last;
+
+    private ApprovalNumbers() {
+    }
+
+    /**
+     * 오늘 날짜의 다음 결재번호
+     */
+    static synchronized String next() throws SQLException {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(day) || next > last) {
+            last = allocate(today, BLOCK);
+            next = last - BLOCK + 1;
+            day = today;
+        }
+        return String.format("%s-%03d", today.format(PREFIX), next++);
+    }
+
+    /**
+     * 날짜 행의 last_value를 count만큼 올리고 올린 뒤 값(블록의 마지막 번호)을 돌려준다.
+     * 호출한 쪽 트랜잭션과 상관없이 바로 커밋되도록 별도 커넥션(autocommit)을 쓴다.
+     */
+    private static int allocate(LocalDate date, int count) throws SQLException {
+        String sql = "INSERT INTO approval_number_counter (day, last_value) VALUES (?, ?) "
+                + "ON CONFLICT (day) DO UPDATE SET last_value = approval_number_counter.last_value + EXCLUDED.last_value "
+                + "RETURNING last_value";
+        try (Connection conn = Database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(date));
+            stmt.setInt(2, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("approval_number_counter upsert returned no row");
+                }
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static int readBlock() {
+        String value = System.getenv("APPROVAL_NUMBER_BLOCK");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid APPROVAL_NUMBER_BLOCK value '" + value + "', using default 20");
+            }
+        }
+        return 20;
+    }
+}
@@ -0,0 +1,70 @@
+package com.loandoc;
+
+/**
+ * 은행별 대출 심사 설정 (bank_info / test_bank_info 한 행)
+ * BankConfigCache 스냅샷으로 여러 요청이 공유하므로 불변으로 유지한다.
+ */
+final class BankConfig {
+
+    final String name;
+    final Integer rank;
+    final String[] allowedVisaTypes;
+    final String[] excludedCountries;
+    final String[] requiredCountries;
+    final int minAge;
+    final Integer maxAge;  // null means no max age limit
+    final int minVisaExpiryDays;
+    final int minEmploymentDays;
+    final double minAnnualIncome;
+    final Double estimatedLimit;
+    final Double estimatedRate;
+    final double weightFactor;  // 가중치 (예: 0.35, 0.36, 0.37, 0.38)
+    final double maxLimit;      // 최고한도
+    final Integer comm;         // 통신 상태 값
+
+    // 위 배열을 VisaCode/CountryCode 비트로 미리 변환한 값 (요청 시 문자열 비교 없음)
+    final long allowedVisaMask;
+    final long excludedCountryMask;
+    final long requiredCountryMask;
+
+    BankConfig(String name, Integer rank, String[] allowedVisaTypes,
+            String[] excludedCountries, String[] requiredCountries,
+            int minAge, Integer maxAge, int minVisaExpiryDays, int minEmploymentDays,
+            double minAnnualIncome, Double estimatedLimit, Double estimatedRate,
+            double weightFactor, double maxLimit, Integer comm) {
+        this.name = name;
+        this.rank = rank;
+        this.allowedVisaTypes = allowedVisaTypes;
+        this.excludedCountries = excludedCountries;
+        this.requiredCountries = requiredCountries;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minVisaExpiryDays = minVisaExpiryDays;
+        this.minEmploymentDays = minEmploymentDays;
+        this.minAnnualIncome = minAnnualIncome;
+        this.estimatedLimit = estimatedLimit;
+        this.estimatedRate = estimatedRate;
+        this.weightFactor = weightFactor;
+        this.maxLimit = maxLimit;
+        this.comm = comm;
+        long visas = 0L;
+        if (allowedVisaTypes != null) {
+            for (String v : allowedVisaTypes) {
+                visas |= VisaCode.parse(v).bit();
+            }
+        }
+        this.allowedVisaMask = visas;
+        this.excludedCountryMask = countryMask(excludedCountries);
+        this.requiredCountryMask = countryMask(requiredCountries);
+    }
+
+    private static long countryMask(String[] countries) {
+        long mask = 0L;
+        if (countries != null) {
+            for (String c : countries) {
+                mask |= CountryCode.parse(c).bit();
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,208 @@
+package com.loandoc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 은행 설정(bank_info / test_bank_info) 메모리 스냅샷
+ *
+ * 대출 견적 요청마다 DB를 조회하지 않도록 모드(운영/테스트)별 불변 리스트를 보관한다.
+ * - BankInfoServlet.doPut 성공 시 invalidate()로 즉시 무효화 (세대 번호 증가)
+ * - 관리 화면을 거치지 않은 직접 수정에 대비해 TTL이 지나면 다시 읽는다
+ * - 조회 실패 시에는 캐시하지 않고, 이전 스냅샷이 있으면 그대로 사용한다.
+ *   실패 후 RETRY_INTERVAL_MS(5초) 동안은 다시 읽지 않는다 (DB 장애 중 요청마다 연결 타임아웃이 쌓이지 않도록)
+ * - 새 스냅샷을 읽으면 EligibilityMatrix 재계산을 요청한다
+ */
+final class BankConfigCache {
+    private static final Logger logger = Logger.getLogger(BankConfigCache.class.getName());
+
+    /** 스냅샷 유효 시간 (BANK_CONFIG_TTL_MS, 기본 60초). EligibilityRules도 같은 값 사용 */
+    static final long TTL_NANOS = readTtlMillis() * 1_000_000L;
+
+    // 조회 실패 후 재시도 최소 간격 (SchemaCatalog.RETRY_INTERVAL_MS와 같은 값)
+    private static final long RETRY_INTERVAL_MS = 5000;
+
+    // DB 기반 설정에서 공통으로 사용하는 기본 허용 비자
+    private static final String[] DEFAULT_VISA_TYPES = {"E7", "E9", "F2", "F6", "F5", "F4"};
+
+    private static final Slot PROD = new Slot("bank_info", false);
+    private static final Slot TEST = new Slot("test_bank_info", true);
+
+    private BankConfigCache() {
+    }
+
+    /**
+     * 현재 스냅샷을 반환한다. 없거나 무효화/만료된 경우 한 스레드만 DB에서 다시 읽는다.
+     */
+    static List<BankConfig> get(boolean testMode) {
+        return slot(testMode).get();
+    }
+
+    /**
+     * 해당 모드의 스냅샷을 무효화한다. 다음 get()에서 DB를 다시 읽는다.
+     */
+    static void invalidate(boolean testMode) {
+        slot(testMode).generation.incrementAndGet();
+        logger.info("Bank configuration snapshot invalidated (testMode: " + testMode + ")");
+    }
+
+    private static Slot slot(boolean testMode) {
+        return testMode ? TEST : PROD;
+    }
+
+    private static long readTtlMillis() {
+        String value = System.getenv("BANK_CONFIG_TTL_MS");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid BANK_CONFIG_TTL_MS value '" + value + "', using default 60000");
+            }
+        }
+        return 60_000L;
+    }
+
+    private static final class Snapshot {
+        final List<BankConfig> banks;
+        final long generation;
+        final long loadedAt;
+
+        Snapshot(List<BankConfig> banks, long generation, long loadedAt) {
+            this.banks = banks;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isFresh(long currentGeneration, long now) {
+            return generation == currentGeneration && now - loadedAt < TTL_NANOS;
+        }
+    }
+
+    private static final class Slot {
+        final String tableName;
+        final boolean testMode;
+        final AtomicLong generation = new AtomicLong();
+        final AtomicReference<Snapshot> current = new AtomicReference<>();
+        // 마지막 조회 실패 시각 (nanoTime)과 그때의 세대. 0이면 실패 없음
+        private volatile long failedAt;
+        private volatile long failedGeneration;
+
+        Slot(String tableName, boolean testMode) {
+            this.tableName = tableName;
+            this.testMode = testMode;
+        }
+
+        List<BankConfig> get() {
+            Snapshot snap = current.get();
+            if (snap != null && snap.isFresh(generation.get(), System.nanoTime())) {
+                return snap.banks;
+            }
+            if (recentlyFailed()) {
+                return snap != null ? snap.banks : Collections.emptyList();
+            }
+            synchronized (this) {
+                // 대기하는 동안 다른 스레드가 이미 다시 읽었거나 실패했을 수 있음
+                snap = current.get();
+                long gen = generation.get();
+                if (snap != null && snap.isFresh(gen, System.nanoTime())) {
+                    return snap.banks;
+                }
+                if (recentlyFailed()) {
+                    return snap != null ? snap.banks : Collections.emptyList();
+                }
+                List<BankConfig> loaded = load();
+                if (loaded == null) {
+                    failedGeneration = gen;
+                    failedAt = System.nanoTime();
+                    return snap != null ? snap.banks : Collections.emptyList();
+                }
+                failedAt = 0;
+                // 로딩 중 invalidate()가 들어왔다면 gen이 달라서 다음 요청에서 다시 읽게 된다
+                current.set(new Snapshot(loaded, gen, System.nanoTime()));
+                // 새 설정 기준 비자×국적 사전 계산표를 백그라운드에서 다시 만든다
+                EligibilityMatrix.refresh(testMode);
+                return loaded;
+            }
+        }
+
+        /**
+         * 최근 조회가 실패했고 그 뒤로 invalidate()도 없었으면 true (재시도 간격 안)
+         */
+        private boolean recentlyFailed() {
+            long at = failedAt;
+            return at != 0 && failedGeneration == generation.get()
+                    && System.nanoTime() - at < RETRY_INTERVAL_MS * 1_000_000L;
+        }
+
+        /**
+         * DB에서 은행 설정을 읽는다. 실패 시 null
+         */
+        private List<BankConfig> load() {
+            logger.log(Level.INFO, "Loading bank configurations from DB - testMode: " + testMode + ", tableName: " + tableName);
+            List<BankConfig> banks = new ArrayList<>();
+            // use_it 컬럼 존재 여부 확인 (SchemaCatalog 캐시)
+            boolean hasUseItColumn = SchemaCatalog.hasColumn(tableName, "use_it");
+            try (Connection conn = Database.getConnection()) {
+                // use_it=1인 데이터만 조회 (testMode일 때는 use_it 필터링 제외)
+                String sql;
+                if (hasUseItColumn && !testMode) {
+                    sql = "SELECT bank_name, bank_code, current_rate, max_limit, weight, comm FROM " + tableName + " WHERE use_it = 1 ORDER BY id";
+                } else {
+                    sql = "SELECT bank_name, bank_code, current_rate, max_limit, weight, comm FROM " + tableName + " ORDER BY id";
+                }
+                logger.log(Level.INFO, "SQL query: " + sql + " (hasUseItColumn: " + hasUseItColumn + ", testMode: " + testMode + ")");
+
+                try (PreparedStatement ps = conn.prepareStatement(sql);
+                        ResultSet rs = ps.executeQuery()) {
+                    int rank = 1;
+                    while (rs.next()) {
+                        String bankName = rs.getString("bank_name");
+                        Double currentRate = rs.getBigDecimal("current_rate") != null ? rs.getBigDecimal("current_rate").doubleValue() : null;
+                        long maxLimit = rs.getLong("max_limit");
+                        double weight = rs.getBigDecimal("weight") != null ? rs.getBigDecimal("weight").doubleValue() : 0.0;
+                        Integer comm = rs.getObject("comm") != null ? rs.getInt("comm") : null;
+
+                        logger.log(Level.FINE, "Loaded bank: " + bankName + ", rate: " + currentRate + ", limit: " + maxLimit + ", weight: " + weight + ", comm: " + comm);
+
+                        // weight는 35.00, 37.00 등 퍼센트 값이므로 0.35, 0.37로 변환
+                        // max_limit은 운영/테스트 모두 만원 단위이므로 그대로 사용
+                        banks.add(new BankConfig(
+                            bankName,
+                            rank++,
+                            DEFAULT_VISA_TYPES, // 기본 허용 비자
+                            null, // excludedCountries
+                            null, // requiredCountries
+                            0, // minAge (검증 안 함)
+                            null, // maxAge
+                            0, // minVisaExpiryDays (검증 안 함)
+                            0, // minEmploymentDays (검증 안 함)
+                            0, // minAnnualIncome (검증 안 함)
+                            2000.0, // estimatedLimit
+                            currentRate, // estimatedRate
+                            weight / 100.0, // weightFactor
+                            (double) maxLimit, // maxLimit
+                            comm // comm
+                        ));
+                    }
+                }
+            } catch (SQLException ex) {
+                logger.log(Level.SEVERE, "Database query failed for bank configurations (testMode: " + testMode + ", table: " + tableName + "): " + ex.getMessage(), ex);
+                return null;
+            } catch (Exception ex) {
+                logger.log(Level.SEVERE, "Unexpected error while fetching bank configurations from DB (testMode: " + testMode + ", table: " + tableName + ")", ex);
+                return null;
+            }
+            logger.log(Level.INFO, "Loaded " + banks.size() + " banks from " + tableName);
+            return Collections.unmodifiableList(banks);
+        }
+    }
+}
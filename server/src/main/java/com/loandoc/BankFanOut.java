@@ -0,0 +1,105 @@
+package com.loandoc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 은행별 심사를 가상 스레드로 동시에 실행한다.
+ *
+ * 은행마다 타임아웃(LOAN_ESTIMATE_BANK_TIMEOUT_MS)이 있고, 요청 전체에는 마감 시각
+ * (LOAN_ESTIMATE_DEADLINE_MS, 요청 수신 시점 기준)이 있다. 시간 안에 끝나지 않은 은행은
+ * 응답 전체를 막지 않고 degraded 결과(음수 comm = 통신장애)로 대체된다.
+ * 결과는 입력 순서대로 반환하므로 정렬 규칙은 호출하는 쪽에서 그대로 적용한다.
+ */
+final class BankFanOut {
+    private static final Logger logger = Logger.getLogger(BankFanOut.class.getName());
+
+    static final long BANK_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(readMillis("LOAN_ESTIMATE_BANK_TIMEOUT_MS", 2000));
+    static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(readMillis("LOAN_ESTIMATE_DEADLINE_MS", 3000));
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    @FunctionalInterface
+    interface Task<T> {
+        /** index = banks 리스트에서의 위치 (EligibilityMatrix 조회용) */
+        T evaluate(BankConfig bank, int index) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Fallback<T> {
+        T degraded(BankConfig bank, String reason);
+    }
+
+    private BankFanOut() {
+    }
+
+    /**
+     * 요청 수신 시점에 호출해서 전체 마감 시각(nanoTime)을 구한다.
+     */
+    static long deadlineFromNow() {
+        return System.nanoTime() + DEADLINE_NANOS;
+    }
+
+    static <T> List<T> evaluate(List<BankConfig> banks, long deadline, Task<T> task, Fallback<T> fallback) {
+        List<T> results = new ArrayList<>(banks.size());
+        if (banks.isEmpty()) {
+            return results;
+        }
+        long start = System.nanoTime();
+        List<Future<T>> futures = new ArrayList<>(banks.size());
+        for (int i = 0; i < banks.size(); i++) {
+            BankConfig bank = banks.get(i);
+            int index = i;
+            futures.add(EXECUTOR.submit(() -> task.evaluate(bank, index)));
+        }
+
+        int degraded = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            BankConfig bank = banks.get(i);
+            Future<T> future = futures.get(i);
+            long waitUntil = Math.min(start + BANK_TIMEOUT_NANOS, deadline);
+            try {
+                results.add(future.get(Math.max(0L, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                degraded++;
+                String reason = waitUntil == deadline ? "deadline" : "timeout";
+                logger.warning("Bank evaluation " + reason + ": " + bank.name);
+                results.add(fallback.degraded(bank, reason));
+            } catch (ExecutionException e) {
+                degraded++;
+                logger.log(Level.WARNING, "Bank evaluation failed: " + bank.name, e.getCause());
+                results.add(fallback.degraded(bank, "error"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                degraded++;
+                results.add(fallback.degraded(bank, "interrupted"));
+            }
+        }
+        if (degraded > 0) {
+            logger.info("Bank fan-out finished with " + degraded + "/" + banks.size() + " degraded banks");
+        }
+        return results;
+    }
+
+    private static long readMillis(String key, long defaultValue) {
+        String value = System.getenv(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
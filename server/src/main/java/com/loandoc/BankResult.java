@@ -0,0 +1,115 @@
+package com.loandoc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 은행 한 곳의 심사 결과 (불변)
+ * 정렬/선택은 primitive 값으로만 하고 JSON은 응답을 쓸 때(LoanEstimateServlet) 한 번만 만든다.
+ *
+ * 항목별 검증 결과는 비트마스크로 보관한다. checks = 수행한 검증, valid = 통과한 검증.
+ * rank/comm 이 없으면 NONE, estimatedRate 가 없으면 NaN.
+ */
+record BankResult(
+        String bankName,
+        int rank,
+        int comm,
+        double estimatedLimit,
+        double estimatedRate,
+        int checks,
+        int valid,
+        String visaTypeError,
+        String countryError,
+        boolean countryValidComputed,
+        String degradedReason) {
+
+    static final int NONE = Integer.MIN_VALUE;
+
+    static final int VISA_TYPE = 1;
+    static final int COUNTRY = 1 << 1;
+    static final int AGE = 1 << 2;
+    static final int VISA_EXPIRY = 1 << 3;
+    static final int EMPLOYMENT_DATE = 1 << 4;
+    static final int ANNUAL_INCOME = 1 << 5;
+    static final int HEALTH_INSURANCE = 1 << 6;
+
+    // 정렬 시 rank 없음 / comm 없음·음수(장애)를 뒤로 보내는 값 (기존 비교 로직과 동일)
+    private static final int RANK_LAST = 999;
+    private static final int COMM_LAST = 999999;
+
+    /** rank -> comm 순 정렬 (List.sort 는 안정 정렬이므로 같은 값은 원래 순서 유지) */
+    static final Comparator<BankResult> ORDER = Comparator.comparingLong(BankResult::sortKey);
+
+    /**
+     * 제한 시간 안에 심사가 끝나지 않은 은행 (comm 음수 = 통신장애)
+     */
+    static BankResult degraded(BankConfig bank, String reason) {
+        return new BankResult(bank.name, bank.rank != null ? bank.rank : NONE, -1, 0,
+                roundedRate(bank), 0, 0, null, null, false, reason);
+    }
+
+    static double roundedRate(BankConfig bank) {
+        // 소수점 2자리까지 반올림
+        return bank.estimatedRate != null ? Math.round(bank.estimatedRate * 100.0) / 100.0 : Double.NaN;
+    }
+
+    boolean isDegraded() {
+        return degradedReason != null;
+    }
+
+    boolean checked(int check) {
+        return (checks & check) != 0;
+    }
+
+    boolean passed(int check) {
+        return (valid & check) != 0;
+    }
+
+    /**
+     * 상위 32비트 rank, 하위 32비트 comm. 둘 다 0 이상이므로 long 비교 한 번으로 정렬된다.
+     */
+    long sortKey() {
+        long r = rank == NONE ? RANK_LAST : rank;
+        long c = comm == NONE || comm < 0 ? COMM_LAST : comm;
+        return (r << 32) | (c & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 정렬된 상위 k개. k 가 전체 이상(또는 0 이하)이면 전체를 정렬해서 돌려준다.
+     * k 가 작으면 크기 k 의 힙으로 부분 선택 후 k개만 정렬 (O(n log k)).
+     */
+    static List<BankResult> ranked(List<BankResult> results, int k) {
+        int n = results.size();
+        if (k <= 0 || k >= n) {
+            results.sort(ORDER);
+            return results;
+        }
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = results.get(i).sortKey();
+        }
+        // 가장 뒤에 올 항목이 머리에 오는 힙 (키가 같으면 나중 입력이 뒤)
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, (a, b) -> {
+            int cmp = Long.compare(keys[b], keys[a]);
+            return cmp != 0 ? cmp : Integer.compare(b, a);
+        });
+        for (int i = 0; i < n; i++) {
+            heap.add(i);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Integer> picked = new ArrayList<>(heap);
+        picked.sort((a, b) -> {
+            int cmp = Long.compare(keys[a], keys[b]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        List<BankResult> top = new ArrayList<>(k);
+        for (int i : picked) {
+            top.add(results.get(i));
+        }
+        return top;
+    }
+}
@@ -0,0 +1,203 @@
+package com.loandoc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 게시판(dashboard, loan_dashboard) 검색어 처리 - 인덱스 조건, 정렬 점수, 하이라이트 스니펫
+ *
+ * 한국어는 조사가 붙어 단어 단위 매칭이 잘 안 되므로 글자 n-gram으로 찾는다. 어느 경우든 결과는
+ * 기존 ILIKE '%검색어%'와 같은 부분 문자열 일치다 ("대출" → "주택대출", "신용대출한도").
+ * - 3글자 이상 검색어: lower(문서) LIKE '%검색어%' → pg_trgm GIN 인덱스
+ * - 1~2글자 검색어: 트라이그램으로는 후보를 좁힐 수 없어 board_ngrams(lower(문서)) @> ARRAY['검색어']
+ *   → 글자 1-gram/2-gram 배열 GIN 인덱스 (검색어에 공백이 없으므로 배열 포함 = 부분 문자열 포함)
+ * 검색어가 여러 개면 모두 포함(AND). 인덱스 표현식은 migrations/20261018_board_search_indexes.sql과
+ * 글자 하나까지 같아야 인덱스를 사용한다.
+ */
+final class BoardSearch {
+
+    static final int MAX_TERMS = 5;
+    // 이보다 짧은 검색어는 board_ngrams(1-gram/2-gram) 인덱스로 찾는다
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+    private static final int SNIPPET_BEFORE = 30;
+    private static final int SNIPPET_LENGTH = 120;
+
+    /** 검색 대상 게시판 */
+    enum Board {
+        DASHBOARD("coalesce(title, '') || ' ' || coalesce(content, '') || ' ' || coalesce(author, '')"),
+        LOAN_DASHBOARD("coalesce(title, '') || ' ' || coalesce(content, '') || ' ' || coalesce(req_login, '') || ' ' || coalesce(name, '')");
+
+        private final String document;
+
+        Board(String document) {
+            this.document = document;
+        }
+
+        String textExpr() {
+            return "lower(" + document + ")";
+        }
+
+        String ngramExpr() {
+            return "board_ngrams(" + textExpr() + ")";
+        }
+
+        String tsvExpr() {
+            return "to_tsvector('simple', " + document + ")";
+        }
+    }
+
+    private BoardSearch() {
+    }
+
+    /**
+     * 검색어를 공백 기준으로 나눈 소문자 단어 목록 (중복 제거, 최대 MAX_TERMS개). 없으면 빈 목록
+     */
+    static List<String> terms(String q) {
+        List<String> terms = new ArrayList<>();
+        if (q == null) {
+            return terms;
+        }
+        for (String part : q.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!part.isEmpty() && !terms.contains(part) && terms.size() < MAX_TERMS) {
+                terms.add(part);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * WHERE 절에 검색어 조건을 덧붙인다 (" AND ..." 형태)
+     */
+    static void appendMatch(StringBuilder where, Board board, List<String> terms, List<String> params) {
+        for (String term : terms) {
+            if (term.codePointCount(0, term.length()) < MIN_TRIGRAM_LENGTH) {
+                where.append(" AND ").append(board.ngramExpr()).append(" @> ARRAY[?]::text[]");
+                params.add(term);
+            } else {
+                where.append(" AND ").append(board.textExpr()).append(" LIKE ?");
+                params.add("%" + escapeLike(term) + "%");
+            }
+        }
+    }
+
+    /**
+     * 정렬 점수 (real): 제목과 검색어의 트라이그램 유사도 ×2 + 본문 포함 전체 ts_rank(접두어 OR)
+     */
+    static String rankExpr(Board board, List<String> terms, List<String> params) {
+        params.add(String.join(" ", terms));
+        String tsQuery = tsQuery(terms);
+        if (tsQuery.isEmpty()) {
+            return "(word_similarity(?, lower(coalesce(title, ''))) * 2)::real";
+        }
+        params.add(tsQuery);
+        return "(word_similarity(?, lower(coalesce(title, ''))) * 2 + ts_rank(" + board.tsvExpr()
+                + ", to_tsquery('simple', ?)))::real";
+    }
+
+    /**
+     * 본문에서 첫 검색어 주변만 잘라 오는 컬럼들 (snippet_start, snippet, content_length)
+     */
+    static String snippetColumns(List<String> terms, List<String> params) {
+        params.add(terms.get(0));
+        params.add(terms.get(0));
+        return "greatest(1, strpos(lower(content), ?) - " + SNIPPET_BEFORE + ") AS snippet_start, "
+                + "substring(content from greatest(1, strpos(lower(content), ?) - " + SNIPPET_BEFORE + ") for "
+                + SNIPPET_LENGTH + ") AS snippet, length(content) AS content_length";
+    }
+
+    /**
+     * snippetColumns로 읽은 본문 조각을 HTML 이스케이프하고 검색어를 &lt;mark&gt;로 감싼다
+     */
+    static String snippet(ResultSet rs, List<String> terms) throws SQLException {
+        String text = rs.getString("snippet");
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        int start = rs.getInt("snippet_start");
+        int length = rs.getInt("content_length");
+        StringBuilder out = new StringBuilder(text.length() + 32);
+        if (start > 1) {
+            out.append('…');
+        }
+        highlight(out, text, terms);
+        if (start - 1 + text.length() < length) {
+            out.append('…');
+        }
+        return out.toString();
+    }
+
+    static void highlight(StringBuilder out, String text, List<String> terms) {
+        int i = 0;
+        while (i < text.length()) {
+            String hit = null;
+            for (String term : terms) {
+                if (text.regionMatches(true, i, term, 0, term.length())
+                        && (hit == null || term.length() > hit.length())) {
+                    hit = term;
+                }
+            }
+            if (hit != null) {
+                out.append("<mark>");
+                escapeHtml(out, text, i, i + hit.length());
+                out.append("</mark>");
+                i += hit.length();
+            } else {
+                escapeHtml(out, text, i, i + 1);
+                i++;
+            }
+        }
+    }
+
+    private static void escapeHtml(StringBuilder out, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\'':
+                    out.append("&#39;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    /** 'a:* | b:*' (tsquery 특수문자를 뺀 단어만). 쓸 단어가 없으면 "" */
+    private static String tsQuery(List<String> terms) {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            String word = tsWord(term);
+            if (!word.isEmpty()) {
+                if (query.length() > 0) {
+                    query.append(" | ");
+                }
+                query.append(word).append(":*");
+            }
+        }
+        return query.toString();
+    }
+
+    /** tsquery에 넣을 수 있도록 문자/숫자만 남긴다 */
+    private static String tsWord(String term) {
+        return term.replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+
+    /** LIKE 패턴 특수문자(\ % _) 이스케이프 */
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
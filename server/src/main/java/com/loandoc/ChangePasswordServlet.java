@@ -2,7 +2,6 @@ package com.loandoc;
 
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -76,19 +75,8 @@ public class ChangePasswordServlet extends HttpServlet {
                 return;
             }
 
-            // 데이터베이스 연결
-            String dbUrl = System.getenv("DB_URL");
-            String dbUser = System.getenv("DB_USER");
-            String dbPassword = System.getenv("DB_PASSWORD");
-
-            // 기본값 설정
-            if (dbUrl == null) dbUrl = "jdbc:postgresql://localhost:5432/loandoc";
-            if (dbUser == null) dbUser = "postgres";
-            if (dbPassword == null) dbPassword = "postgres";
-
-            Class.forName("org.postgresql.Driver");
-
-            try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword)) {
+            // 데이터베이스 연결 (공용 커넥션 풀)
+            try (Connection conn = Database.getConnection()) {
                 // 1. 현재 비밀번호 확인
                 String selectSql = "SELECT password FROM user_account WHERE user_id = ?";
                 String currentHashedPassword = null;
@@ -155,11 +143,6 @@ public class ChangePasswordServlet extends HttpServlet {
                 resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             }
 
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-            response.put("ok", false);
-            response.put("error", "PostgreSQL 드라이버를 찾을 수 없습니다.");
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         } catch (Exception e) {
             e.printStackTrace();
             response.put("ok", false);
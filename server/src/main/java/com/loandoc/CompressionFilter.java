@@ -0,0 +1,479 @@
+package com.loandoc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * 응답 gzip 압축 필터 (web.xml에서 /* 매핑)
+ *
+ * - 정적 페이지(html/css/js/svg): 빌드 때 StaticPrecompressor가 만든 "경로.gz"가 있으면 그대로 보낸다.
+ *   Cache-Control: public, max-age=STATIC_MAX_AGE(기본 86400) + ETag(.gz 파일 시각/크기)로 304 처리
+ * - 그 외(JSON 등 동적 응답): 본문이 COMPRESSION_MIN_BYTES(기본 1024) 이상이고 텍스트 계열일 때만 압축.
+ *   Deflater는 COMPRESSION_POOL_SIZE(기본 16)개까지 재사용한다 (요청마다 네이티브 zlib 스트림을 만들지 않음)
+ * - 압축한 응답의 ETag는 약한 검증자(W/"...")로 바꾼다. If-None-Match는 약한 비교라 ReferenceCache의 304와 맞물림
+ * - brotli는 순수 Java 인코더가 없어 지원하지 않는다 (Accept-Encoding: br 만 보내는 클라이언트는 비압축)
+ */
+public class CompressionFilter implements Filter {
+    private static final Logger logger = Logger.getLogger(CompressionFilter.class.getName());
+
+    private static final int MIN_BYTES = Math.max(0, readInt("COMPRESSION_MIN_BYTES", 1024));
+    private static final int LEVEL = Math.max(1, Math.min(9, readInt("COMPRESSION_LEVEL", 6)));
+    private static final int POOL_SIZE = Math.max(1, readInt("COMPRESSION_POOL_SIZE", 16));
+    private static final int STATIC_MAX_AGE = Math.max(0, readInt("STATIC_MAX_AGE", 86400));
+
+    private static final ArrayBlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private ServletContext context;
+
+    @Override
+    public void init(FilterConfig config) {
+        this.context = config.getServletContext();
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+        if (!acceptsGzip(req)) {
+            chain.doFilter(req, resp);
+            return;
+        }
+        if (("GET".equals(req.getMethod()) || "HEAD".equals(req.getMethod())) && servePrecompressed(req, resp)) {
+            return;
+        }
+        if ("HEAD".equals(req.getMethod())) {
+            chain.doFilter(req, resp);
+            return;
+        }
+        CompressingResponse wrapper = new CompressingResponse(resp);
+        try {
+            chain.doFilter(req, wrapper);
+        } finally {
+            wrapper.finish();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Deflater deflater;
+        while ((deflater = DEFLATERS.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 미리 압축된 정적 파일이 있으면 보낸다
+     */
+    private boolean servePrecompressed(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String path = req.getServletPath() + (req.getPathInfo() != null ? req.getPathInfo() : "");
+        if (!StaticPrecompressor.isCompressible(path)) {
+            return false;
+        }
+        URL gz = context.getResource(path + ".gz");
+        if (gz == null) {
+            return false;
+        }
+        // 원본이 .gz보다 새로우면(배포 스크립트로 html만 덮어쓴 경우) 원본을 그대로 보냄
+        URL original = context.getResource(path);
+        if (original == null) {
+            return false;
+        }
+        URLConnection source = original.openConnection();
+        long sourceModified = source.getLastModified();
+        closeQuietly(source);
+
+        // file:/jar: 연결은 헤더를 읽을 때 스트림을 열므로 304여도 닫는다
+        URLConnection connection = gz.openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            long length = connection.getContentLengthLong();
+            long lastModified = connection.getLastModified();
+            if (sourceModified > lastModified) {
+                return false;
+            }
+            String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "-gz\"";
+
+            String mimeType = context.getMimeType(path);
+            resp.setContentType(mimeType != null && mimeType.startsWith("text/") ? mimeType + "; charset=utf-8" : mimeType);
+            resp.setHeader("Content-Encoding", "gzip");
+            resp.setHeader("Vary", "Accept-Encoding");
+            resp.setHeader("Cache-Control", "public, max-age=" + STATIC_MAX_AGE);
+            resp.setHeader("ETag", etag);
+            if (lastModified > 0) {
+                resp.setDateHeader("Last-Modified", lastModified);
+            }
+            String ifNoneMatch = req.getHeader("If-None-Match");
+            if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+            if (length >= 0) {
+                resp.setContentLengthLong(length);
+            }
+            if (!"HEAD".equals(req.getMethod())) {
+                in.transferTo(resp.getOutputStream());
+            }
+        }
+        return true;
+    }
+
+    private static void closeQuietly(URLConnection connection) {
+        try {
+            connection.getInputStream().close();
+        } catch (IOException e) {
+            // 닫기 실패는 무시 (없는 파일 등)
+        }
+    }
+
+    /** Accept-Encoding에 gzip(또는 *)이 q=0이 아닌 값으로 있는지 */
+    static boolean acceptsGzip(HttpServletRequest req) {
+        String header = req.getHeader("Accept-Encoding");
+        if (header == null) {
+            return false;
+        }
+        for (String part : header.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean zero = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        zero = Double.parseDouble(param.substring(2)) <= 0.0;
+                    } catch (NumberFormatException e) {
+                        zero = true;
+                    }
+                }
+            }
+            if (!zero) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean compressibleType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("json") || type.contains("javascript")
+                || type.contains("xml") || type.contains("svg");
+    }
+
+    private static Deflater borrowDeflater() {
+        Deflater deflater = DEFLATERS.poll();
+        return deflater != null ? deflater : new Deflater(LEVEL, true);
+    }
+
+    private static void returnDeflater(Deflater deflater) {
+        deflater.reset();
+        if (!DEFLATERS.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 본문을 MIN_BYTES까지 모아 두었다가, 넘으면 gzip으로 전환하고 아니면 그대로 보내는 응답
+     */
+    private static final class CompressingResponse extends HttpServletResponseWrapper {
+        private final HttpServletResponse resp;
+        private ByteArrayOutputStream pending = new ByteArrayOutputStream(Math.max(256, MIN_BYTES));
+        private OutputStream target;        // 결정 후 쓰는 곳 (gzip 또는 원래 응답)
+        private GzipStream gzip;
+        private boolean bypass;             // sendError/sendRedirect 등으로 본문을 건드리지 않음
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+        private boolean finishing;          // finish() 중의 writer.flush()로는 결정하지 않음 (길이를 알고 정함)
+
+        CompressingResponse(HttpServletResponse resp) {
+            super(resp);
+            this.resp = resp;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (stream == null) {
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        write(new byte[] { (byte) b }, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        CompressingResponse.this.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        CompressingResponse.this.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        finish();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        throw new IllegalStateException("async I/O not supported");
+                    }
+                };
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            flush();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (target == null) {
+                pending.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (target == null) {
+                pending.reset();
+                contentLength = -1;
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            bypass = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            bypass = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            bypass = true;
+            super.sendRedirect(location);
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (bypass) {
+                return;
+            }
+            if (target == null) {
+                pending.write(b, off, len);
+                if (pending.size() < MIN_BYTES && (contentLength < 0 || contentLength >= MIN_BYTES)) {
+                    return;
+                }
+                decide(pending.size() >= MIN_BYTES);
+                return;
+            }
+            target.write(b, off, len);
+        }
+
+        /**
+         * 스트리밍 응답(ndjson 배치 등)의 flush: 아직 정하지 않았으면 지금까지 모인 크기로 바로 정하고 내보낸다
+         */
+        private void flush() throws IOException {
+            if (bypass) {
+                return;
+            }
+            if (target == null) {
+                if (finishing) {
+                    return;
+                }
+                decide(pending.size() >= MIN_BYTES);
+            }
+            target.flush();
+        }
+
+        /** 압축 여부를 정하고 모아 둔 본문을 내보낸다 */
+        private void decide(boolean large) throws IOException {
+            int status = resp.getStatus();
+            boolean compress = large && compressibleType(getContentType()) && resp.getHeader("Content-Encoding") == null
+                    && status != HttpServletResponse.SC_NO_CONTENT && status != HttpServletResponse.SC_NOT_MODIFIED;
+            resp.addHeader("Vary", "Accept-Encoding");
+            if (compress) {
+                resp.setHeader("Content-Encoding", "gzip");
+                String etag = resp.getHeader("ETag");
+                if (etag != null && !etag.startsWith("W/")) {
+                    resp.setHeader("ETag", "W/" + etag);
+                }
+                gzip = new GzipStream(resp.getOutputStream());
+                target = gzip;
+            } else {
+                if (contentLength >= 0) {
+                    resp.setContentLengthLong(contentLength);
+                }
+                target = resp.getOutputStream();
+            }
+            pending.writeTo(target);
+            pending = null;
+        }
+
+        void finish() throws IOException {
+            finishing = true;
+            if (writer != null) {
+                writer.flush();
+            }
+            if (bypass) {
+                return;
+            }
+            if (target == null) {
+                // 끝까지 작았음: 길이를 알려 주고 그대로
+                if (pending.size() > 0 || contentLength >= 0) {
+                    contentLength = pending.size();
+                }
+                decide(false);
+            }
+            if (gzip != null) {
+                gzip.finish();
+                gzip = null;
+            }
+        }
+    }
+
+    /**
+     * 풀에서 빌린 Deflater로 쓰는 gzip 스트림 (헤더 + raw deflate + CRC32/길이 트레일러)
+     */
+    private static final class GzipStream extends OutputStream {
+        private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+        private final OutputStream out;
+        private final CRC32 crc = new CRC32();
+        private Deflater deflater;
+        private DeflaterOutputStream deflate;
+
+        GzipStream(OutputStream out) throws IOException {
+            this.out = out;
+            this.deflater = borrowDeflater();
+            // syncFlush: flush() 때 지금까지의 압축 결과를 바로 내보냄
+            this.deflate = new DeflaterOutputStream(out, deflater, 8192, true);
+            out.write(HEADER);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (deflater == null) {
+                throw new IOException("gzip stream already finished");
+            }
+            crc.update(b, off, len);
+            deflate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // finish() 후에는 Deflater가 풀로 돌아갔으므로 건드리지 않음
+            if (deflater == null) {
+                out.flush();
+                return;
+            }
+            deflate.flush();
+        }
+
+        void finish() throws IOException {
+            if (deflater == null) {
+                return;
+            }
+            try {
+                deflate.finish();
+                writeInt((int) crc.getValue());
+                writeInt((int) deflater.getBytesRead());
+            } finally {
+                returnDeflater(deflater);
+                deflater = null;
+            }
+        }
+
+        private void writeInt(int v) throws IOException {
+            out.write(v & 0xff);
+            out.write((v >>> 8) & 0xff);
+            out.write((v >>> 16) & 0xff);
+            out.write((v >>> 24) & 0xff);
+        }
+    }
+
+    private static int readInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -1,14 +1,19 @@
 package com.loandoc;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -23,18 +28,21 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 // 형상관리 시스템 서블릿
 public class ConfigurationManagementServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/loandoc";
-    private static final String DB_USER = "postgres";
-    private static final String DB_PASSWORD = "postgres";
+    private static final Logger logger = Logger.getLogger(ConfigurationManagementServlet.class.getName());
 
-    static {
-        try {
-            Class.forName("org.postgresql.Driver");
-        } catch (ClassNotFoundException e) {
-            System.err.println("[ConfigurationManagementServlet] PostgreSQL JDBC Driver not found: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
+    // 결재 상태 (github_history.status 컬럼 값, 제출/승인/반려 시 함께 갱신)
+    static final String STATUS_PENDING = "대기중";
+    static final String STATUS_SUBMITTED = "제출됨";
+    static final String STATUS_APPROVED = "승인됨";
+    static final String STATUS_REJECTED = "반려됨";
+    private static final List<String> STATUSES = List.of(STATUS_PENDING, STATUS_SUBMITTED, STATUS_APPROVED, STATUS_REJECTED);
+
+    // 목록 정렬 키: change_datetime이 없는 이력은 맨 뒤. migrations/20261018_github_history_status.sql 인덱스 표현식과 같아야 함
+    private static final String SORT_KEY = "coalesce(change_datetime, '-infinity'::timestamp)";
+
+    // 목록 페이지 크기 (limit 파라미터 기본값/상한)
+    private static final int MAX_PAGE_SIZE = Math.max(1, readInt("CONFIG_HISTORY_MAX_PAGE_SIZE", 200));
+    private static final int DEFAULT_PAGE_SIZE = Math.max(1, Math.min(MAX_PAGE_SIZE, readInt("CONFIG_HISTORY_PAGE_SIZE", 50)));
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
@@ -44,7 +52,10 @@ public class ConfigurationManagementServlet extends HttpServlet {
         String pathInfo = req.getPathInfo();
         ObjectMapper mapper = new ObjectMapper();
 
-        if (pathInfo != null && !pathInfo.equals("/")) {
+        if ("/counts".equals(pathInfo)) {
+            // GET /api/config_management/counts?q=&env_type=&stage_type= - 상태별 건수
+            countByStatus(req.getParameter("q"), req.getParameter("env_type"), req.getParameter("stage_type"), resp, mapper);
+        } else if (pathInfo != null && !pathInfo.equals("/")) {
             // GET /api/config_management/{id} - Get single history record
             String idStr = pathInfo.substring(1);
             try {
@@ -55,12 +66,20 @@ public class ConfigurationManagementServlet extends HttpServlet {
                 resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid ID\"}");
             }
         } else {
-            // GET /api/config_management?q=&status=&env_type= - List history records
+            // GET /api/config_management?q=&status=&env_type=&stage_type=&limit=&cursor= - List history records
             String query = req.getParameter("q");
             String status = req.getParameter("status");
             String envType = req.getParameter("env_type");
             String stageType = req.getParameter("stage_type");
-            listHistoryRecords(query, status, envType, stageType, resp, mapper);
+            Cursor after;
+            try {
+                after = Cursor.decode(req.getParameter("cursor"));
+            } catch (IllegalArgumentException e) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid cursor\"}");
+                return;
+            }
+            listHistoryRecords(query, status, envType, stageType, after, parseLimit(req.getParameter("limit")), resp, mapper);
         }
     }
 
@@ -100,81 +119,81 @@ public class ConfigurationManagementServlet extends HttpServlet {
         }
     }
 
-    private void listHistoryRecords(String query, String status, String envType, String stageType,
-            HttpServletResponse resp, ObjectMapper mapper) throws IOException {
+    /**
+     * 변경이력 목록 (요약: important_code_content 제외, 상세는 GET /api/config_management/{id})
+     * change_datetime DESC, id DESC 순서의 키셋 페이지. 상태 필터는 status 컬럼의 상태별 부분 인덱스를 탄다.
+     *   limit  : 페이지 크기 (기본 CONFIG_HISTORY_PAGE_SIZE=50, 최대 CONFIG_HISTORY_MAX_PAGE_SIZE=200)
+     *   cursor : 이전 응답의 next_cursor (없으면 첫 페이지)
+     */
+    private void listHistoryRecords(String query, String status, String envType, String stageType, Cursor after,
+            int limit, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
 
-            StringBuilder sql = new StringBuilder(
-                    "SELECT id, database_name, repo_name, change_datetime, program_name, change_reason, "
-                            + "developer_name, important_code_content, approval_number, target_server, env_type, "
-                            + "stage_type, test_apply_date, prod_apply_date, submitted_date, approved_date, "
-                            + "rejected_date, rejection_reason, prod_scheduled_date, approver, work_content, "
-                            + "approval_reason "
-                            + "FROM github_history WHERE 1=1");
+            StringBuilder where = new StringBuilder(" WHERE 1=1");
             List<Object> params = new ArrayList<>();
+            appendFilters(where, params, query, envType, stageType);
 
-            if (query != null && !query.trim().isEmpty()) {
-                sql.append(" AND (program_name ILIKE ? OR change_reason ILIKE ? OR developer_name ILIKE ?)");
-                String searchPattern = "%" + query + "%";
-                params.add(searchPattern);
-                params.add(searchPattern);
-                params.add(searchPattern);
-            }
-
-            if (status != null && !status.trim().isEmpty() && !status.equals("전체")) {
-                // status에 따라 필터링 (제출됨, 승인됨, 반려됨, 대기중)
-                if ("제출됨".equals(status)) {
-                    sql.append(" AND submitted_date IS NOT NULL AND approved_date IS NULL AND rejected_date IS NULL");
-                } else if ("승인됨".equals(status)) {
-                    sql.append(" AND approved_date IS NOT NULL");
-                } else if ("반려됨".equals(status)) {
-                    sql.append(" AND rejected_date IS NOT NULL");
-                } else if ("대기중".equals(status)) {
-                    sql.append(" AND submitted_date IS NULL");
-                }
-            }
-
-            if (envType != null && !envType.trim().isEmpty() && !envType.equals("전체")) {
-                sql.append(" AND env_type = ?");
-                params.add(envType);
+            if (status != null && STATUSES.contains(status)) {
+                // 상태별 부분 인덱스 조건과 글자 그대로 같아야 하므로 파라미터 대신 상수로 넣음
+                where.append(" AND status = '").append(status).append("'");
             }
 
-            if (stageType != null && !stageType.trim().isEmpty() && !stageType.equals("전체")) {
-                sql.append(" AND stage_type = ?");
-                params.add(stageType);
+            StringBuilder sql = new StringBuilder(
+                    "SELECT id, database_name, repo_name, change_datetime, program_name, change_reason, "
+                            + "developer_name, approval_number, target_server, env_type, "
+                            + "stage_type, test_apply_date, prod_apply_date, submitted_date, approved_date, "
+                            + "rejected_date, rejection_reason, prod_scheduled_date, approver, work_content, "
+                            + "approval_reason, status "
+                            + "FROM github_history").append(where);
+            if (after != null) {
+                // 이전 페이지 마지막 이력 (change_datetime이 없으면 -infinity) 다음부터
+                sql.append(" AND (").append(SORT_KEY).append(", id) < (coalesce(?::timestamp, '-infinity'::timestamp), ?)");
             }
-
-            sql.append(" ORDER BY change_datetime DESC");
+            // 다음 페이지 존재 여부 확인용으로 한 건 더 읽음
+            sql.append(" ORDER BY ").append(SORT_KEY).append(" DESC, id DESC LIMIT ?");
 
             stmt = conn.prepareStatement(sql.toString());
-            for (int i = 0; i < params.size(); i++) {
-                Object param = params.get(i);
-                if (param instanceof String) {
-                    stmt.setString(i + 1, (String) param);
+            int index = 1;
+            for (Object param : params) {
+                stmt.setString(index++, (String) param);
+            }
+            if (after != null) {
+                if (after.changeDatetime != null) {
+                    stmt.setTimestamp(index++, after.changeDatetime);
                 } else {
-                    stmt.setObject(i + 1, param);
+                    stmt.setNull(index++, Types.TIMESTAMP);
                 }
+                stmt.setInt(index++, after.id);
             }
+            stmt.setInt(index, limit + 1);
 
             rs = stmt.executeQuery();
 
             ArrayNode rows = mapper.createArrayNode();
+            Timestamp lastChangeDatetime = null;
+            int lastId = 0;
+            boolean hasMore = false;
             while (rs.next()) {
+                if (rows.size() == limit) {
+                    hasMore = true;
+                    break;
+                }
                 ObjectNode row = mapper.createObjectNode();
-                row.put("id", rs.getInt("id"));
+                lastId = rs.getInt("id");
+                row.put("id", lastId);
                 row.put("database_name", rs.getString("database_name"));
                 row.put("repo_name", rs.getString("repo_name"));
                 Timestamp changeDatetime = rs.getTimestamp("change_datetime");
+                lastChangeDatetime = changeDatetime;
                 row.put("change_datetime", changeDatetime != null ? changeDatetime.toString() : null);
                 row.put("program_name", rs.getString("program_name"));
                 row.put("change_reason", rs.getString("change_reason"));
                 row.put("developer_name", rs.getString("developer_name"));
-                row.put("important_code_content", rs.getString("important_code_content"));
                 row.put("approval_number", rs.getString("approval_number"));
                 row.put("target_server", rs.getString("target_server"));
                 row.put("env_type", rs.getString("env_type"));
@@ -195,17 +214,7 @@ public class ConfigurationManagementServlet extends HttpServlet {
                 row.put("approver", rs.getString("approver"));
                 row.put("work_content", rs.getString("work_content"));
                 row.put("approval_reason", rs.getString("approval_reason"));
-
-                // 상태 계산
-                String currentStatus = "대기중";
-                if (rejectedDate != null) {
-                    currentStatus = "반려됨";
-                } else if (approvedDate != null) {
-                    currentStatus = "승인됨";
-                } else if (submittedDate != null) {
-                    currentStatus = "제출됨";
-                }
-                row.put("status", currentStatus);
+                row.put("status", rs.getString("status"));
 
                 rows.add(row);
             }
@@ -213,31 +222,119 @@ public class ConfigurationManagementServlet extends HttpServlet {
             ObjectNode response = mapper.createObjectNode();
             response.put("ok", true);
             response.set("rows", rows);
+            response.put("has_more", hasMore);
+            if (hasMore) {
+                response.put("next_cursor", new Cursor(lastChangeDatetime, lastId).encode());
+            } else {
+                response.putNull("next_cursor");
+            }
 
             resp.setStatus(HttpServletResponse.SC_OK);
             resp.getWriter().write(mapper.writeValueAsString(response));
 
         } catch (SQLException e) {
-            e.printStackTrace();
+            logger.log(Level.WARNING, "Failed to list github_history", e);
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            resp.getWriter().write("{\"ok\":false,\"error\":\"Database error: " + e.getMessage() + "\"}");
+            ObjectNode error = mapper.createObjectNode();
+            error.put("ok", false);
+            error.put("error", "Database error: " + e.getMessage());
+            resp.getWriter().write(mapper.writeValueAsString(error));
         } finally {
             closeResources(rs, stmt, conn);
         }
     }
 
+    /**
+     * 상태별 건수: {"전체": n, "대기중": n, "제출됨": n, "승인됨": n, "반려됨": n}
+     * 상태 필터를 뺀 나머지 목록 조건(q, env_type, stage_type)을 적용한 ROLLUP 집계 한 번으로 구한다.
+     */
+    private void countByStatus(String query, String envType, String stageType, HttpServletResponse resp,
+            ObjectMapper mapper) throws IOException {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = Database.getConnection();
+            StringBuilder where = new StringBuilder(" WHERE 1=1");
+            List<Object> params = new ArrayList<>();
+            appendFilters(where, params, query, envType, stageType);
+
+            stmt = conn.prepareStatement("SELECT status, GROUPING(status) AS grand, count(*) FROM github_history"
+                    + where + " GROUP BY ROLLUP (status)");
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setString(i + 1, (String) params.get(i));
+            }
+            rs = stmt.executeQuery();
+
+            ObjectNode counts = mapper.createObjectNode();
+            counts.put("전체", 0L);
+            for (String status : STATUSES) {
+                counts.put(status, 0L);
+            }
+            while (rs.next()) {
+                if (rs.getInt("grand") == 1) {
+                    counts.put("전체", rs.getLong(3));
+                } else if (rs.getString("status") != null) {
+                    counts.put(rs.getString("status"), rs.getLong(3));
+                }
+            }
+
+            ObjectNode response = mapper.createObjectNode();
+            response.put("ok", true);
+            response.set("counts", counts);
+
+            resp.setStatus(HttpServletResponse.SC_OK);
+            resp.getWriter().write(mapper.writeValueAsString(response));
+
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to count github_history", e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            ObjectNode error = mapper.createObjectNode();
+            error.put("ok", false);
+            error.put("error", "Database error: " + e.getMessage());
+            resp.getWriter().write(mapper.writeValueAsString(error));
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+
+    /**
+     * 목록/건수 공통 조건 (검색어, 테스트/운영 구분, 개발/테스트/배포 구분)
+     */
+    private static void appendFilters(StringBuilder where, List<Object> params, String query, String envType,
+            String stageType) {
+        if (query != null && !query.trim().isEmpty()) {
+            where.append(" AND (program_name ILIKE ? OR change_reason ILIKE ? OR developer_name ILIKE ?)");
+            String searchPattern = "%" + query + "%";
+            params.add(searchPattern);
+            params.add(searchPattern);
+            params.add(searchPattern);
+        }
+
+        if (envType != null && !envType.trim().isEmpty() && !envType.equals("전체")) {
+            where.append(" AND env_type = ?");
+            params.add(envType);
+        }
+
+        if (stageType != null && !stageType.trim().isEmpty() && !stageType.equals("전체")) {
+            where.append(" AND stage_type = ?");
+            params.add(stageType);
+        }
+    }
+
     private void getHistoryRecord(int id, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "SELECT id, database_name, repo_name, change_datetime, program_name, change_reason, "
                     + "developer_name, important_code_content, approval_number, target_server, env_type, "
                     + "stage_type, test_apply_date, prod_apply_date, submitted_date, approved_date, "
                     + "rejected_date, rejection_reason, prod_scheduled_date, approver, work_content, "
-                    + "approval_reason "
+                    + "approval_reason, status "
                     + "FROM github_history WHERE id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setInt(1, id);
@@ -274,17 +371,7 @@ public class ConfigurationManagementServlet extends HttpServlet {
                 row.put("approver", rs.getString("approver"));
                 row.put("work_content", rs.getString("work_content"));
                 row.put("approval_reason", rs.getString("approval_reason"));
-
-                // 상태 계산
-                String currentStatus = "대기중";
-                if (rejectedDate != null) {
-                    currentStatus = "반려됨";
-                } else if (approvedDate != null) {
-                    currentStatus = "승인됨";
-                } else if (submittedDate != null) {
-                    currentStatus = "제출됨";
-                }
-                row.put("status", currentStatus);
+                row.put("status", rs.getString("status"));
 
                 ObjectNode response = mapper.createObjectNode();
                 response.put("ok", true);
@@ -326,29 +413,11 @@ public class ConfigurationManagementServlet extends HttpServlet {
                 }
             }
 
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            
-            // 결재번호 자동 생성: YYYYMMDD-001 형식
-            java.util.Calendar cal = java.util.Calendar.getInstance();
-            String datePrefix = String.format("%04d%02d%02d", 
-                cal.get(java.util.Calendar.YEAR),
-                cal.get(java.util.Calendar.MONTH) + 1,
-                cal.get(java.util.Calendar.DAY_OF_MONTH));
-            
-            // 같은 날짜에 제출된 결재 개수 조회 (submitted_date가 오늘인 것들)
-            String countSql = "SELECT COUNT(*) FROM github_history WHERE submitted_date IS NOT NULL AND submitted_date::date = CURRENT_DATE";
-            stmt = conn.prepareStatement(countSql);
-            rs = stmt.executeQuery();
-            int count = 0;
-            if (rs.next()) {
-                count = rs.getInt(1);
-            }
-            rs.close();
-            stmt.close();
-            
-            // 다음 번호 생성 (001, 002, ...)
-            int nextNumber = count + 1;
-            String approvalNumber = String.format("%s-%03d", datePrefix, nextNumber);
+            // 결재번호 자동 생성: YYYYMMDD-001 형식 (날짜별 카운터에서 블록 단위로 미리 받아 둔 번호, ApprovalNumbers)
+            // 블록을 새로 받을 때 커넥션을 따로 쓰므로 이 요청의 커넥션을 잡기 전에 발급
+            String approvalNumber = ApprovalNumbers.next();
+
+            conn = Database.getConnection();
 
             // 승인자 랜덤 할당 (김종호, 하현용, 문규식)
             String[] approvers = {"김종호", "하현용", "문규식"};
@@ -372,7 +441,9 @@ public class ConfigurationManagementServlet extends HttpServlet {
 
             String sql = "UPDATE github_history SET approval_number = ?, target_server = ?, env_type = ?, "
                     + "stage_type = ?, submitted_date = CURRENT_TIMESTAMP, prod_scheduled_date = ?, "
-                    + "approver = ?, work_content = ? WHERE id = ?";
+                    + "approver = ?, work_content = ?, status = '" + STATUS_SUBMITTED + "', "
+                    // 재제출: 이전 반려/승인 흔적을 지워 날짜 기준 재계산(server.js PUT)과 status가 어긋나지 않게
+                    + "approved_date = NULL, rejected_date = NULL, rejection_reason = NULL WHERE id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, approvalNumber);
             stmt.setString(2, targetServer);
@@ -448,9 +519,10 @@ public class ConfigurationManagementServlet extends HttpServlet {
                 approvalReason = requestBody.get("approval_reason").asText();
             }
 
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "UPDATE github_history SET approved_date = ?, "
-                    + "test_apply_date = ?, prod_apply_date = ?, approval_reason = ?, rejected_date = NULL, rejection_reason = NULL WHERE id = ?";
+                    + "test_apply_date = ?, prod_apply_date = ?, approval_reason = ?, rejected_date = NULL, rejection_reason = NULL, "
+                    + "status = '" + STATUS_APPROVED + "' WHERE id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setTimestamp(1, approvedDate);
             stmt.setTimestamp(2, testApplyDate);
@@ -502,9 +574,9 @@ public class ConfigurationManagementServlet extends HttpServlet {
                 rejectedDate = new Timestamp(System.currentTimeMillis());
             }
 
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "UPDATE github_history SET rejected_date = ?, rejection_reason = ?, "
-                    + "approved_date = NULL WHERE id = ?";
+                    + "approved_date = NULL, status = '" + STATUS_REJECTED + "' WHERE id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setTimestamp(1, rejectedDate);
             stmt.setString(2, rejectionReason);
@@ -566,7 +638,7 @@ public class ConfigurationManagementServlet extends HttpServlet {
                 }
             }
 
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             StringBuilder sql = new StringBuilder("UPDATE github_history SET ");
             List<Object> params = new ArrayList<>();
             boolean first = true;
@@ -653,6 +725,64 @@ public class ConfigurationManagementServlet extends HttpServlet {
         }
     }
 
+    private static int parseLimit(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    private static int readInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 목록 페이지 커서: 마지막 이력의 (change_datetime, id). change_datetime이 없으면 "-" 로 기록
+     */
+    private static final class Cursor {
+        final Timestamp changeDatetime;
+        final int id;
+
+        Cursor(Timestamp changeDatetime, int id) {
+            this.changeDatetime = changeDatetime;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = (changeDatetime != null ? changeDatetime.toLocalDateTime().toString() : "-") + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** 빈 값이면 null, 형식이 틀리면 IllegalArgumentException */
+        static Cursor decode(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid cursor: " + value);
+                }
+                Timestamp changeDatetime = "-".equals(parts[0]) ? null : Timestamp.valueOf(LocalDateTime.parse(parts[0]));
+                return new Cursor(changeDatetime, Integer.parseInt(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value, e);
+            }
+        }
+    }
+
     private void closeResources(ResultSet rs, PreparedStatement stmt, Connection conn) {
         try {
             if (rs != null)
@@ -0,0 +1,113 @@
+package com.loandoc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 국적 코드 사전 (ISO 3166-1 alpha-2)
+ * 화면에서 넘어오는 영문 국가명과 별칭("burma" -> MM, "east timor" -> TL)을 요청당 한 번 코드로 바꾼다.
+ * 이후 은행 규칙, countryDebug 등은 문자열 대신 ordinal/비트로 비교한다.
+ */
+enum CountryCode {
+    KH("cambodia"),
+    BD("bangladesh"),
+    CN("china"),
+    TL("east timor", "timor-leste", "timor leste", "timor"),
+    IN("india"),
+    ID("indonesia"),
+    KZ("kazakhstan", "kazakh"),
+    KG("kyrgyzstan", "kyrgyz"),
+    LA("laos", "lao pdr"),
+    MM("myanmar", "burma"),
+    MN("mongolia"),
+    NP("nepal"),
+    PK("pakistan"),
+    PH("philippines", "philippine"),
+    LK("sri lanka", "srilanka"),
+    TH("thailand"),
+    UZ("uzbekistan", "uzbek"),
+    VN("vietnam", "viet nam"),
+    UNKNOWN();
+
+    private final String[] aliases;
+
+    private static final Map<String, CountryCode> EXACT = new HashMap<>();
+    // 부분일치용 별칭 (긴 것부터): "Republic of India" 같은 입력 대응
+    private static final String[] CONTAINS_ALIASES;
+    private static final CountryCode[] CONTAINS_CODES;
+
+    static {
+        List<String[]> pairs = new ArrayList<>();
+        for (CountryCode c : values()) {
+            if (c == UNKNOWN) {
+                continue;
+            }
+            EXACT.put(c.name().toLowerCase(Locale.ROOT), c);
+            for (String alias : c.aliases) {
+                EXACT.put(alias, c);
+                pairs.add(new String[] {alias, c.name()});
+            }
+        }
+        pairs.sort(Comparator.comparingInt((String[] p) -> p[0].length()).reversed());
+        CONTAINS_ALIASES = new String[pairs.size()];
+        CONTAINS_CODES = new CountryCode[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            CONTAINS_ALIASES[i] = pairs.get(i)[0];
+            CONTAINS_CODES[i] = valueOf(pairs.get(i)[1]);
+        }
+    }
+
+    CountryCode(String... aliases) {
+        this.aliases = aliases;
+    }
+
+    /** 비트마스크용 비트 (UNKNOWN은 0) */
+    long bit() {
+        return this == UNKNOWN ? 0L : 1L << ordinal();
+    }
+
+    /**
+     * 국가명/별칭/ISO 코드를 코드로 변환한다. 알 수 없으면 UNKNOWN
+     */
+    static CountryCode parse(String nationality) {
+        if (nationality == null) {
+            return UNKNOWN;
+        }
+        return parseLower(nationality.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 규칙 키워드용: 국가명/별칭/ISO 코드와 정확히 일치할 때만 코드 (부분일치 없음). 알 수 없으면 UNKNOWN
+     */
+    static CountryCode lookup(String keyword) {
+        if (keyword == null) {
+            return UNKNOWN;
+        }
+        CountryCode code = EXACT.get(keyword.trim().toLowerCase(Locale.ROOT));
+        return code != null ? code : UNKNOWN;
+    }
+
+    /**
+     * 이미 trim/소문자 처리된 값용
+     */
+    static CountryCode parseLower(String natLower) {
+        if (natLower.isEmpty()) {
+            return UNKNOWN;
+        }
+        CountryCode exact = EXACT.get(natLower);
+        if (exact != null) {
+            return exact;
+        }
+        // 드문 경로: 별칭이 포함된 긴 입력 (기존 contains 비교와 동일한 결과)
+        for (int i = 0; i < CONTAINS_ALIASES.length; i++) {
+            if (natLower.contains(CONTAINS_ALIASES[i])) {
+                return CONTAINS_CODES[i];
+            }
+        }
+        return UNKNOWN;
+    }
+}
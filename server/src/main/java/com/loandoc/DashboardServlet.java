@@ -1,13 +1,17 @@
 package com.loandoc;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.logging.Logger;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -22,21 +26,11 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 // 서블릿 매핑은 web.xml에 정의됨
 public class DashboardServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/loandoc";
-    private static final String DB_USER = "postgres";
-    private static final String DB_PASSWORD = "postgres";
+    private static final Logger logger = Logger.getLogger(DashboardServlet.class.getName());
 
-    static {
-        try {
-            // Ensure the PostgreSQL JDBC driver is loaded and registered with DriverManager
-            Class.forName("org.postgresql.Driver");
-        } catch (ClassNotFoundException e) {
-            // If driver is not available, keep going; errors will be reported when
-            // attempting connections
-            System.err.println("[DashboardServlet] PostgreSQL JDBC Driver not found: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
+    // 목록 페이지 크기 (limit 파라미터 기본값/상한)
+    private static final int MAX_PAGE_SIZE = Math.max(1, readInt("DASHBOARD_MAX_PAGE_SIZE", 200));
+    private static final int DEFAULT_PAGE_SIZE = Math.max(1, Math.min(MAX_PAGE_SIZE, readInt("DASHBOARD_PAGE_SIZE", 50)));
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
@@ -47,21 +41,31 @@ public class DashboardServlet extends HttpServlet {
         ObjectMapper mapper = new ObjectMapper();
 
         if (pathInfo != null && !pathInfo.equals("/")) {
-            // GET /server/dashboard/{id} - Get single post
+            // GET /server/dashboard/{id} - Get single post (?view=false: 수정 폼 로딩, 조회수 미반영)
             String idStr = pathInfo.substring(1);
             try {
                 int msgId = Integer.parseInt(idStr);
-                getPost(msgId, resp, mapper);
+                boolean countView = !"false".equalsIgnoreCase(req.getParameter("view"));
+                getPost(msgId, countView, resp, mapper);
             } catch (NumberFormatException e) {
                 resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
                 resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid ID\"}");
             }
         } else {
-            // GET /server/dashboard?q=&msg_type= - List posts
+            // GET /server/dashboard?q=&msg_type=&limit=&cursor=&count= - List posts
             String query = req.getParameter("q");
             String msgType = req.getParameter("msg_type");
             System.out.println("[DashboardServlet] query 파라미터: " + query);
-            listPosts(query, msgType, resp, mapper);
+            int limit = parseLimit(req.getParameter("limit"));
+            Cursor after;
+            try {
+                after = Cursor.decode(req.getParameter("cursor"));
+            } catch (IllegalArgumentException e) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid cursor\"}");
+                return;
+            }
+            listPosts(query, msgType, after, limit, req.getParameter("count"), resp, mapper);
         }
     }
 
@@ -147,65 +151,134 @@ public class DashboardServlet extends HttpServlet {
         }
     }
 
-    private void listPosts(String query, String msgType, HttpServletResponse resp, ObjectMapper mapper)
-            throws IOException {
+    /**
+     * 게시글 목록 (요약: content 제외, 본문은 GET /api/dashboard/{id})
+     * created_at DESC, msg_id DESC 순서로 (created_at, msg_id) 키셋 페이지를 돌려준다.
+     * q가 있으면 인덱스 검색 후 관련도(rank) 순, 각 행에 rank와 하이라이트된 snippet을 붙인다.
+     *   limit  : 페이지 크기 (기본 DASHBOARD_PAGE_SIZE=50, 최대 DASHBOARD_MAX_PAGE_SIZE=200)
+     *   cursor : 이전 응답의 next_cursor (없으면 첫 페이지)
+     *   count  : approx(실행계획 추정치) | exact(count(*)) - 보통 첫 페이지에서만 요청
+     */
+    private void listPosts(String query, String msgType, Cursor after, int limit, String countMode,
+            HttpServletResponse resp, ObjectMapper mapper) throws IOException {
+        List<String> terms = BoardSearch.terms(query);
+        if (after != null && (after.rank != null) != !terms.isEmpty()) {
+            // 검색 결과 커서와 전체 목록 커서는 정렬 기준이 달라 섞어 쓸 수 없음
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid cursor\"}");
+            return;
+        }
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
 
-                StringBuilder sql = new StringBuilder(
-                    "SELECT msg_id, author, title, msg_type, created_at, updated_at, content, views FROM dashboard WHERE 1=1");
+            StringBuilder where = new StringBuilder(" WHERE 1=1");
             List<String> params = new ArrayList<>();
 
             // msgType이 null, 빈 문자열, '전체'(한글 인코딩 포함)일 때 전체 조회
             if (msgType != null && !msgType.trim().isEmpty()) {
                 String decodedMsgType = java.net.URLDecoder.decode(msgType, "UTF-8");
                 if (!decodedMsgType.equals("전체")) {
-                    sql.append(" AND msg_type = ?");
+                    where.append(" AND msg_type = ?");
                     params.add(decodedMsgType);
                 }
             }
-            // SQL 및 파라미터 로그 출력
-            System.out.println("[DashboardServlet] 실행 SQL: " + sql.toString());
-            System.out.println("[DashboardServlet] 파라미터: " + params);
-
-            if (query != null && !query.trim().isEmpty()) {
-                sql.append(" AND (title ILIKE ? OR content ILIKE ? OR author ILIKE ?)");
-                String searchPattern = "%" + query + "%";
-                params.add(searchPattern);
-                params.add(searchPattern);
-                params.add(searchPattern);
+
+            // 검색어: 트라이그램/tsvector GIN 인덱스 조건 (BoardSearch)
+            BoardSearch.appendMatch(where, BoardSearch.Board.DASHBOARD, terms, params);
+
+            String columns = "msg_id, author, title, msg_type, created_at, updated_at, views";
+            List<String> selectParams = new ArrayList<>();
+            StringBuilder sql = new StringBuilder();
+            if (terms.isEmpty()) {
+                sql.append("SELECT ").append(columns).append(" FROM dashboard").append(where);
+                if (after != null) {
+                    // 행 비교: (created_at, msg_id) 복합 인덱스를 그대로 타고 이전 페이지 마지막 글 다음부터 읽음
+                    sql.append(" AND (created_at, msg_id) < (?, ?)");
+                }
+                // 다음 페이지 존재 여부 확인용으로 한 건 더 읽음
+                sql.append(" ORDER BY created_at DESC, msg_id DESC LIMIT ?");
+            } else {
+                // 검색 결과는 관련도 순 (같으면 최신순). 커서에 점수도 들어감
+                String rank = BoardSearch.rankExpr(BoardSearch.Board.DASHBOARD, terms, selectParams);
+                String snippet = BoardSearch.snippetColumns(terms, selectParams);
+                sql.append("SELECT * FROM (SELECT ").append(columns).append(", ").append(rank).append(" AS rank, ")
+                        .append(snippet).append(" FROM dashboard").append(where).append(") s");
+                if (after != null) {
+                    sql.append(" WHERE (s.rank, s.created_at, s.msg_id) < (?, ?, ?)");
+                }
+                sql.append(" ORDER BY s.rank DESC, s.created_at DESC, s.msg_id DESC LIMIT ?");
             }
 
-            sql.append(" ORDER BY created_at DESC");
+            // SQL 및 파라미터 로그 출력
+            System.out.println("[DashboardServlet] 실행 SQL: " + sql.toString());
+            System.out.println("[DashboardServlet] 파라미터: " + selectParams + params + (after != null ? " cursor=" + after : ""));
 
             stmt = conn.prepareStatement(sql.toString());
-            for (int i = 0; i < params.size(); i++) {
-                stmt.setString(i + 1, params.get(i));
+            int index = 1;
+            for (String param : selectParams) {
+                stmt.setString(index++, param);
+            }
+            for (String param : params) {
+                stmt.setString(index++, param);
             }
+            if (after != null) {
+                if (after.rank != null) {
+                    stmt.setFloat(index++, after.rank);
+                }
+                stmt.setTimestamp(index++, after.createdAt);
+                stmt.setInt(index++, after.msgId);
+            }
+            stmt.setInt(index, limit + 1);
 
             rs = stmt.executeQuery();
 
             ArrayNode rows = mapper.createArrayNode();
+            Float lastRank = null;
+            Timestamp lastCreatedAt = null;
+            int lastMsgId = 0;
+            boolean hasMore = false;
             while (rs.next()) {
+                if (rows.size() == limit) {
+                    hasMore = true;
+                    break;
+                }
                 ObjectNode row = mapper.createObjectNode();
-                row.put("msg_id", rs.getInt("msg_id"));
+                lastMsgId = rs.getInt("msg_id");
+                lastCreatedAt = rs.getTimestamp("created_at");
+                row.put("msg_id", lastMsgId);
                 row.put("author", rs.getString("author"));
                 row.put("title", rs.getString("title"));
                 row.put("msg_type", rs.getString("msg_type"));
-                row.put("created_at", rs.getTimestamp("created_at").toString());
+                row.put("created_at", lastCreatedAt.toString());
                 row.put("updated_at", rs.getTimestamp("updated_at").toString());
-                row.put("content", rs.getString("content"));
-                row.put("views", rs.getInt("views"));
+                row.put("views", rs.getLong("views") + ViewCounter.pending(lastMsgId));
+                if (!terms.isEmpty()) {
+                    lastRank = rs.getFloat("rank");
+                    row.put("rank", lastRank);
+                    // 본문 중 첫 검색어 주변 (HTML 이스케이프 + <mark> 강조)
+                    row.put("snippet", BoardSearch.snippet(rs, terms));
+                }
                 rows.add(row);
             }
 
             ObjectNode response = mapper.createObjectNode();
             response.put("ok", true);
             response.set("rows", rows);
+            response.put("has_more", hasMore);
+            if (hasMore) {
+                response.put("next_cursor", new Cursor(lastRank, lastCreatedAt, lastMsgId).encode());
+            } else {
+                response.putNull("next_cursor");
+            }
+            if ("exact".equalsIgnoreCase(countMode) || "approx".equalsIgnoreCase(countMode)) {
+                boolean exact = "exact".equalsIgnoreCase(countMode);
+                response.put("total", countPosts(conn, where.toString(), params, exact));
+                response.put("total_exact", exact);
+            }
 
             resp.setStatus(HttpServletResponse.SC_OK);
             resp.getWriter().write(mapper.writeValueAsString(response));
@@ -219,13 +292,41 @@ public class DashboardServlet extends HttpServlet {
         }
     }
 
-    private void getPost(int msgId, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
+    /**
+     * 목록 조건에 맞는 글 수. exact가 아니면 실행계획의 예상 행 수를 사용한다
+     * (전체 스캔 없이 바로 나오며, 통계가 갱신된 정도에 따라 오차가 있음)
+     */
+    private long countPosts(Connection conn, String where, List<String> params, boolean exact) throws SQLException {
+        String sql = exact
+                ? "SELECT count(*) FROM dashboard" + where
+                : "EXPLAIN (FORMAT JSON) SELECT 1 FROM dashboard" + where;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setString(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                if (exact) {
+                    return rs.getLong(1);
+                }
+                // [{"Plan": {"Plan Rows": N, ...}}]
+                JsonNode plan = new ObjectMapper().readTree(rs.getString(1));
+                return plan.path(0).path("Plan").path("Plan Rows").asLong();
+            } catch (IOException e) {
+                throw new SQLException("Unexpected EXPLAIN output", e);
+            }
+        }
+    }
+
+    private void getPost(int msgId, boolean countView, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "SELECT msg_id, author, password, title, msg_type, content, created_at, updated_at, views FROM dashboard WHERE msg_id = ?";
             System.out.println("[DashboardServlet] 실행 SQL: " + sql);
             System.out.println("[DashboardServlet] 파라미터: [" + msgId + "]");
@@ -243,7 +344,11 @@ public class DashboardServlet extends HttpServlet {
                 row.put("content", rs.getString("content"));
                 row.put("created_at", rs.getTimestamp("created_at").toString());
                 row.put("updated_at", rs.getTimestamp("updated_at").toString());
-                row.put("views", rs.getInt("views"));
+                // 조회수는 메모리에서 모았다가 주기적으로 반영 (ViewCounter), 이번 조회 포함해 보여 줌
+                if (countView) {
+                    ViewCounter.increment(msgId);
+                }
+                row.put("views", rs.getLong("views") + ViewCounter.pending(msgId));
 
                 ObjectNode response = mapper.createObjectNode();
                 response.put("ok", true);
@@ -272,7 +377,7 @@ public class DashboardServlet extends HttpServlet {
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "INSERT INTO dashboard (author, password, title, msg_type, content) VALUES (?, ?, ?, ?, ?) RETURNING msg_id";
             System.out.println("[DashboardServlet] 실행 SQL: " + sql);
             System.out.println("[DashboardServlet] 파라미터: [" + author + ", " + password + ", " + title + ", " + msgType + ", " + content + "]");
@@ -310,7 +415,7 @@ public class DashboardServlet extends HttpServlet {
         PreparedStatement stmt = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "UPDATE dashboard SET title = ?, msg_type = ?, content = ? WHERE msg_id = ?";
             System.out.println("[DashboardServlet] 실행 SQL: " + sql);
             System.out.println("[DashboardServlet] 파라미터: [" + title + ", " + msgType + ", " + content + ", " + msgId + "]");
@@ -347,7 +452,7 @@ public class DashboardServlet extends HttpServlet {
         PreparedStatement stmt = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "DELETE FROM dashboard WHERE msg_id = ?";
             System.out.println("[DashboardServlet] 실행 SQL: " + sql);
             System.out.println("[DashboardServlet] 파라미터: [" + msgId + "]");
@@ -376,6 +481,72 @@ public class DashboardServlet extends HttpServlet {
         }
     }
 
+    private static int parseLimit(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    private static int readInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 목록 페이지 커서: 마지막 글의 (created_at, msg_id), 검색 결과면 앞에 rank. 응답에는 base64url 문자열로 내보낸다
+     */
+    private static final class Cursor {
+        final Float rank;
+        final Timestamp createdAt;
+        final int msgId;
+
+        Cursor(Float rank, Timestamp createdAt, int msgId) {
+            this.rank = rank;
+            this.createdAt = createdAt;
+            this.msgId = msgId;
+        }
+
+        String encode() {
+            String raw = (rank != null ? rank + "|" : "") + createdAt.toLocalDateTime() + "|" + msgId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** 빈 값이면 null, 형식이 틀리면 IllegalArgumentException */
+        static Cursor decode(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 2 && parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid cursor: " + value);
+                }
+                int i = parts.length - 2;
+                return new Cursor(i == 1 ? Float.valueOf(parts[0]) : null,
+                        Timestamp.valueOf(LocalDateTime.parse(parts[i])), Integer.parseInt(parts[i + 1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return (rank != null ? rank + "/" : "") + createdAt + "/" + msgId;
+        }
+    }
+
     private void closeResources(ResultSet rs, PreparedStatement stmt, Connection conn) {
         try {
             if (rs != null)
@@ -0,0 +1,85 @@
+package com.loandoc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 웹앱 기동 시 PostgreSQL 커넥션 풀을 한 번 생성하고 종료 시 닫는다.
+ * 모든 서블릿은 Database.getConnection()으로 이 풀을 공유한다.
+ */
+@WebListener
+public class DataSourceListener implements ServletContextListener {
+    private static final Logger logger = Logger.getLogger(DataSourceListener.class.getName());
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ServletContext ctx = sce.getServletContext();
+
+        DbConfig db = DbConfig.resolve(ctx);
+        ctx.setAttribute(DbConfig.ATTRIBUTE, db);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("loandoc-pool");
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setJdbcUrl(db.url());
+        config.setUsername(db.user());
+        config.setPassword(db.password());
+        config.setMaximumPoolSize(db.poolMaxSize());
+        config.setMinimumIdle(db.poolMinIdle());
+        config.setConnectionTimeout(db.connectionTimeoutMs());
+        config.setIdleTimeout(db.idleTimeoutMs());
+        config.setMaxLifetime(db.maxLifetimeMs());
+        config.setLeakDetectionThreshold(db.leakDetectionMs());
+        config.setConnectionTestQuery("SELECT 1");
+        // 기존 서블릿들이 연결마다 실행하던 인코딩 설정을 물리 연결 생성 시 한 번만 실행
+        config.setConnectionInitSql("SET client_encoding TO 'UTF8'");
+        // DB가 내려가 있어도 웹앱은 기동 (서블릿별 fallback 응답 유지)
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(Database.metrics());
+
+        HikariDataSource ds = new HikariDataSource(config);
+        Database.init(ds);
+        logger.info("Connection pool started: " + db);
+
+        try (Connection conn = ds.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SHOW server_encoding")) {
+            if (rs.next()) {
+                logger.info("Database server encoding: " + rs.getString(1));
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Database not reachable at startup, pool will retry on demand: " + e.getMessage());
+        }
+
+        // 테이블/컬럼 메타데이터 1회 로딩 (실패 시 첫 조회에서 재시도)
+        SchemaCatalog.refresh();
+        // 약관 카탈로그 1회 로딩 (실패 시 첫 조회에서 재시도)
+        DocumentCatalog.refresh();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        EligibilityMatrix.shutdown();
+        DocumentCatalog.shutdown();
+        // 남은 조회수 반영은 풀을 닫기 전에
+        ViewCounter.shutdown();
+        HikariDataSource ds = Database.detach();
+        if (ds != null) {
+            ds.close();
+            logger.info("Connection pool closed");
+        }
+        DebugLog.shutdown();
+    }
+}
@@ -0,0 +1,53 @@
+package com.loandoc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * 애플리케이션 전역 커넥션 풀 접근점
+ * DataSourceListener가 기동 시 풀을 등록하고, 서블릿은 요청마다 여기서 커넥션을 빌려 쓴 뒤 close()로 반납한다.
+ */
+public final class Database {
+
+    private static volatile HikariDataSource dataSource;
+    private static final PoolMetrics metrics = new PoolMetrics();
+
+    private Database() {
+    }
+
+    static void init(HikariDataSource ds) {
+        dataSource = ds;
+    }
+
+    static HikariDataSource detach() {
+        HikariDataSource ds = dataSource;
+        dataSource = null;
+        return ds;
+    }
+
+    static PoolMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * 풀에서 커넥션을 빌려온다. 반드시 try-with-resources 또는 finally에서 close()해야 풀로 반납된다.
+     */
+    public static Connection getConnection() throws SQLException {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            throw new SQLException("Connection pool is not initialized");
+        }
+        return ds.getConnection();
+    }
+
+    /**
+     * 현재 풀 상태 (active/idle/total/대기 스레드 수). 풀이 없으면 null
+     */
+    static HikariPoolMXBean poolState() {
+        HikariDataSource ds = dataSource;
+        return ds != null ? ds.getHikariPoolMXBean() : null;
+    }
+}
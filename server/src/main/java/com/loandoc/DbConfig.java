@@ -0,0 +1,161 @@
+package com.loandoc;
+
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.ServletContext;
+
+/**
+ * DB 접속/커넥션 풀 설정 (불변)
+ * 기동 시 DataSourceListener가 한 번만 해석해서 ServletContext 속성으로 등록한다.
+ * 해석 순서: 환경변수 -> context-param -> classpath db.properties -> 기본값
+ */
+public final class DbConfig {
+    private static final Logger logger = Logger.getLogger(DbConfig.class.getName());
+
+    /** ServletContext 속성 이름 */
+    public static final String ATTRIBUTE = DbConfig.class.getName();
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/loandoc";
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int poolMaxSize;
+    private final int poolMinIdle;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long leakDetectionMs;
+    private final boolean fileFallbackEnabled;
+
+    private DbConfig(Source src) {
+        String dbUrl = src.get("DB_URL", null);
+        if (dbUrl == null) {
+            dbUrl = DEFAULT_URL;
+        } else if (!dbUrl.startsWith("jdbc:")) {
+            dbUrl = "jdbc:postgresql://" + dbUrl;
+        }
+        this.url = dbUrl;
+        this.user = src.get("DB_USER", "postgres");
+        this.password = src.get("DB_PASSWORD", "postgres");
+        this.poolMaxSize = src.getInt("DB_POOL_MAX_SIZE", 10);
+        this.poolMinIdle = src.getInt("DB_POOL_MIN_IDLE", 2);
+        this.connectionTimeoutMs = src.getInt("DB_POOL_CONNECTION_TIMEOUT_MS", 5000);
+        this.idleTimeoutMs = src.getInt("DB_POOL_IDLE_TIMEOUT_MS", 600000);
+        this.maxLifetimeMs = src.getInt("DB_POOL_MAX_LIFETIME_MS", 1800000);
+        this.leakDetectionMs = src.getInt("DB_POOL_LEAK_DETECTION_MS", 20000);
+        // DB 장애 시 회원가입 파일 저장 허용 여부 (기존 동작 호환을 위해 기본 true)
+        this.fileFallbackEnabled = Boolean.parseBoolean(src.get("ENABLE_FILE_FALLBACK", "true"));
+    }
+
+    /**
+     * 설정을 해석한다. 기동 시 한 번만 호출할 것 (db.properties 파일 읽기 포함)
+     */
+    static DbConfig resolve(ServletContext ctx) {
+        Properties props = new Properties();
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
+            if (in != null) {
+                props.load(in);
+                logger.info("Loaded DB properties from classpath db.properties");
+            }
+        } catch (Exception e) {
+            logger.log(Level.FINE, "No db.properties found on classpath or failed to load", e);
+        }
+        return new DbConfig(new Source(ctx, props));
+    }
+
+    /**
+     * 기동 시 등록된 설정을 가져온다. 리스너가 실행되지 않은 경우 IllegalStateException
+     */
+    public static DbConfig from(ServletContext ctx) {
+        Object value = ctx.getAttribute(ATTRIBUTE);
+        if (!(value instanceof DbConfig)) {
+            throw new IllegalStateException("DbConfig is not registered; is DataSourceListener configured?");
+        }
+        return (DbConfig) value;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public String user() {
+        return user;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    public int poolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public int poolMinIdle() {
+        return poolMinIdle;
+    }
+
+    public long connectionTimeoutMs() {
+        return connectionTimeoutMs;
+    }
+
+    public long idleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public long maxLifetimeMs() {
+        return maxLifetimeMs;
+    }
+
+    public long leakDetectionMs() {
+        return leakDetectionMs;
+    }
+
+    public boolean fileFallbackEnabled() {
+        return fileFallbackEnabled;
+    }
+
+    @Override
+    public String toString() {
+        // 비밀번호는 로그에 남기지 않음
+        return "DbConfig{url=" + url + ", user=" + user + ", poolMaxSize=" + poolMaxSize
+                + ", poolMinIdle=" + poolMinIdle + ", fileFallback=" + fileFallbackEnabled + "}";
+    }
+
+    private static final class Source {
+        private final ServletContext ctx;
+        private final Properties props;
+
+        Source(ServletContext ctx, Properties props) {
+            this.ctx = ctx;
+            this.props = props;
+        }
+
+        String get(String key, String defaultValue) {
+            String value = System.getenv(key);
+            if ((value == null || value.isEmpty()) && ctx != null) {
+                value = ctx.getInitParameter(key);
+            }
+            if (value == null || value.isEmpty()) {
+                value = props.getProperty(key);
+            }
+            return (value == null || value.isEmpty()) ? defaultValue : value;
+        }
+
+        int getInt(String key, int defaultValue) {
+            String value = get(key, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+                return defaultValue;
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.loandoc;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 심사 디버그 로그 (기존 D:/LoanDoc/server/deploy_debug.log 직접 쓰기 대체)
+ *
+ * 요청 스레드는 고정 크기 링 버퍼에 항목을 넣기만 하고(CAS, 락 없음), 파일은 백그라운드
+ * 스레드 하나가 열어 둔 채로 모아서 기록한다. 버퍼가 가득 차면 기다리지 않고 버리며 개수만 센다.
+ *
+ * 환경변수
+ *   DEBUG_LOG_PATH      기록 파일 (기본: ${catalina.base}/logs/deploy_debug.log)
+ *   DEBUG_LOG_LEVEL     기록할 최소 레벨 (java.util.logging 이름, 기본 FINE, OFF면 끔)
+ *   DEBUG_LOG_CAPACITY  버퍼 크기 (2의 거듭제곱으로 올림, 기본 4096)
+ */
+final class DebugLog {
+    private static final Logger logger = Logger.getLogger(DebugLog.class.getName());
+
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final Path PATH = resolvePath();
+    private static final Level LEVEL = resolveLevel();
+    private static final int THRESHOLD = LEVEL.intValue();
+    private static final int CAPACITY = resolveCapacity();
+    private static final int MASK = CAPACITY - 1;
+
+    private static final AtomicReferenceArray<Entry> RING = new AtomicReferenceArray<>(CAPACITY);
+    // 다음에 쓸 위치 (생산자 여럿, CAS로 자리 확보)
+    private static final AtomicLong TAIL = new AtomicLong();
+    // 다음에 읽을 위치 (writer 스레드만 갱신)
+    private static volatile long head;
+
+    private static final LongAdder WRITTEN = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private static volatile boolean running = true;
+    private static final Thread WRITER;
+
+    static {
+        WRITER = new Thread(DebugLog::drainLoop, "loandoc-debug-log");
+        WRITER.setDaemon(true);
+        if (THRESHOLD != Level.OFF.intValue()) {
+            WRITER.start();
+            logger.info("Debug log: " + PATH + " (level >= " + LEVEL + ", capacity " + CAPACITY + ")");
+        }
+    }
+
+    private static final class Entry {
+        final long time;
+        final Level level;
+        final String message;
+        final Throwable error;
+
+        Entry(long time, Level level, String message, Throwable error) {
+            this.time = time;
+            this.level = level;
+            this.message = message;
+            this.error = error;
+        }
+    }
+
+    private DebugLog() {
+    }
+
+    /** 메시지를 만들기 전에 확인해서 꺼진 레벨의 문자열 조립을 피한다 */
+    static boolean isEnabled(Level level) {
+        return THRESHOLD != Level.OFF.intValue() && level.intValue() >= THRESHOLD;
+    }
+
+    static void log(Level level, String message) {
+        log(level, message, null);
+    }
+
+    /**
+     * 버퍼에 넣고 바로 반환한다. 스택트레이스 문자열화도 writer 스레드에서 한다.
+     */
+    static void log(Level level, String message, Throwable error) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), level, message, error);
+        while (true) {
+            long t = TAIL.get();
+            if (t - head >= CAPACITY) {
+                DROPPED.increment();
+                return;
+            }
+            if (TAIL.compareAndSet(t, t + 1)) {
+                RING.lazySet((int) (t & MASK), entry);
+                if (t - head >= CAPACITY / 2) {
+                    // 절반 이상 찼으면 주기를 기다리지 않고 writer를 깨움
+                    LockSupport.unpark(WRITER);
+                }
+                return;
+            }
+        }
+    }
+
+    static long written() {
+        return WRITTEN.sum();
+    }
+
+    static long dropped() {
+        return DROPPED.sum();
+    }
+
+    static long pending() {
+        return Math.max(0L, TAIL.get() - head);
+    }
+
+    static Path path() {
+        return PATH;
+    }
+
+    /**
+     * 남은 항목을 기록하고 writer를 멈춘다 (웹앱 종료 시)
+     */
+    static void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(WRITER);
+        try {
+            WRITER.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long dropped = DROPPED.sum();
+        if (dropped > 0) {
+            logger.warning("Debug log dropped " + dropped + " entries under backpressure");
+        }
+    }
+
+    private static void drainLoop() {
+        BufferedWriter out = null;
+        while (true) {
+            boolean stopping = !running;
+            long h = head;
+            int batch = 0;
+            if (out == null && RING.get((int) (h & MASK)) != null) {
+                out = open();
+            }
+            Entry entry;
+            while ((entry = RING.get((int) (h & MASK))) != null) {
+                RING.lazySet((int) (h & MASK), null);
+                h++;
+                head = h;
+                if (out == null) {
+                    // 파일을 열 수 없으면 이번 묶음은 버림 (다음 주기에 다시 열기 시도)
+                    DROPPED.increment();
+                    continue;
+                }
+                try {
+                    write(out, entry);
+                    batch++;
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Debug log write failed: " + PATH, e);
+                    close(out);
+                    out = null;
+                }
+            }
+            if (batch > 0 && out != null) {
+                WRITTEN.add(batch);
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    close(out);
+                    out = null;
+                }
+            }
+            if (stopping && TAIL.get() == head) {
+                close(out);
+                return;
+            }
+            LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+        }
+    }
+
+    private static BufferedWriter open() {
+        try {
+            Path parent = PATH.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return Files.newBufferedWriter(PATH, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Cannot open debug log " + PATH, e);
+            return null;
+        }
+    }
+
+    private static void write(BufferedWriter out, Entry entry) throws IOException {
+        out.write(Instant.ofEpochMilli(entry.time).toString());
+        out.write(' ');
+        out.write(entry.level.getName());
+        out.write(' ');
+        out.write(entry.message);
+        out.newLine();
+        if (entry.error != null) {
+            StringWriter sw = new StringWriter();
+            entry.error.printStackTrace(new PrintWriter(sw));
+            out.write(sw.toString());
+        }
+    }
+
+    private static void close(BufferedWriter out) {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static Path resolvePath() {
+        String value = System.getenv("DEBUG_LOG_PATH");
+        if (value != null && !value.trim().isEmpty()) {
+            return Paths.get(value.trim());
+        }
+        return Paths.get(System.getProperty("catalina.base", System.getProperty("java.io.tmpdir")), "logs", "deploy_debug.log");
+    }
+
+    private static Level resolveLevel() {
+        String value = System.getenv("DEBUG_LOG_LEVEL");
+        if (value != null && !value.trim().isEmpty()) {
+            try {
+                return Level.parse(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid DEBUG_LOG_LEVEL value '" + value + "', using default FINE");
+            }
+        }
+        return Level.FINE;
+    }
+
+    private static int resolveCapacity() {
+        int capacity = 4096;
+        String value = System.getenv("DEBUG_LOG_CAPACITY");
+        if (value != null && !value.trim().isEmpty()) {
+            try {
+                capacity = Math.max(16, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid DEBUG_LOG_CAPACITY value '" + value + "', using default " + capacity);
+            }
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -0,0 +1,106 @@
+package com.loandoc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 약관 묶음 조회 (그룹 → 제목 → 본문을 한 번에)
+ * GET /api/documents/bundle                               - 동의 화면 그룹 전체 (groups 와 같은 목록)
+ * GET /api/documents/bundle?group_name=A&group_name=B     - 지정한 그룹만 (요청 순서대로)
+ * GET /api/documents/bundle?titles_only=true              - 본문 없이 제목만 (페이지 첫 로딩용)
+ *
+ * 응답: {"ok":true,"groups":[{"group_name","select_option","documents":[{"title","content"}]}]}
+ * DocumentCatalog에서 바로 스트리밍한다 (본문은 보관된 UTF-8 바이트 그대로).
+ */
+@WebServlet(urlPatterns = { "/api/documents/bundle" })
+public class DocumentBundleServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        DocumentCatalog.Snapshot catalog = DocumentCatalog.snapshot();
+        if (catalog == null) {
+            // 화면은 기존 개별 API(예비 데이터 포함)로 대체
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            ObjectNode err = mapper.createObjectNode();
+            err.put("ok", false);
+            err.put("error", "document catalog not loaded (database unavailable)");
+            resp.getWriter().print(mapper.writeValueAsString(err));
+            return;
+        }
+
+        boolean titlesOnly = "true".equalsIgnoreCase(req.getParameter("titles_only"));
+        List<DocumentCatalog.Group> groups;
+        List<String> missing = new ArrayList<>();
+        String[] requested = req.getParameterValues("group_name");
+        if (requested == null || requested.length == 0) {
+            groups = catalog.consentGroups;
+        } else {
+            groups = new ArrayList<>();
+            Set<String> names = new LinkedHashSet<>();
+            for (String name : requested) {
+                if (name != null && !name.trim().isEmpty()) {
+                    names.add(name);
+                }
+            }
+            for (String name : names) {
+                DocumentCatalog.Group group = catalog.group(name);
+                if (group != null) {
+                    groups.add(group);
+                } else {
+                    missing.add(name);
+                }
+            }
+        }
+
+        resp.setHeader("Cache-Control", "public, max-age=300");
+        resp.setHeader("X-Data-Source", "db");
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeBooleanField("ok", true);
+            gen.writeBooleanField("titles_only", titlesOnly);
+            gen.writeArrayFieldStart("groups");
+            for (DocumentCatalog.Group group : groups) {
+                gen.writeStartObject();
+                gen.writeStringField("group_name", group.name);
+                gen.writeStringField("select_option", group.selectOption);
+                gen.writeArrayFieldStart("documents");
+                for (DocumentCatalog.Document doc : group.documents) {
+                    gen.writeStartObject();
+                    gen.writeStringField("title", doc.title);
+                    if (!titlesOnly) {
+                        gen.writeFieldName("content");
+                        gen.writeRawUTF8String(doc.content, 0, doc.content.length);
+                    }
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            // 카탈로그에 없는 그룹명
+            gen.writeArrayFieldStart("missing");
+            for (String name : missing) {
+                gen.writeString(name);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+}
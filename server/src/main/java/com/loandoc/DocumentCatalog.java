@@ -0,0 +1,230 @@
+package com.loandoc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * 약관(documents) 메모리 카탈로그: 그룹 → 제목 순 문서 → 본문
+ *
+ * DocumentsGroupsServlet / GroupDetailsServlet / DocumentContentServlet이 요청마다 DB를 조회하던 것을 대체한다.
+ * - 기동 시 DataSourceListener가 한 번 읽고, DOCUMENT_CATALOG_TTL_MS(기본 300000)가 지나면
+ *   백그라운드 스레드가 다시 읽는다 (요청은 기다리지 않고 이전 스냅샷으로 바로 응답)
+ * - 읽기에 실패하면 RETRY_INTERVAL_MS 동안은 다시 시도하지 않는다
+ * - 약관을 마이그레이션으로 바꾼 뒤에는 POST /api/documents/catalog 로 즉시 다시 읽는다
+ * - 본문은 JSON 문자열로 이스케이프한 UTF-8 바이트로 보관해 응답에 그대로 쓴다 (요청마다 String/JSON 변환 없음)
+ * - 조회 실패 시 기존 스냅샷 유지. 한 번도 읽지 못했으면 null (서블릿은 기존 예비 데이터로 응답)
+ */
+final class DocumentCatalog {
+    private static final Logger logger = Logger.getLogger(DocumentCatalog.class.getName());
+
+    // 그룹 순서는 DISTINCT ON (group_name) ... ORDER BY group_name, group_number 와 같게,
+    // 그룹 안 제목 순서는 DB 정렬 규칙(ORDER BY title)을 그대로 쓰기 위해 순위를 함께 읽는다
+    private static final String LOAD_SQL = "SELECT id, group_name, select_option, title, content, "
+            + "dense_rank() OVER (ORDER BY title) AS title_order "
+            + "FROM documents ORDER BY group_name, group_number, id";
+
+    private static final long TTL_MILLIS = readTtlMillis();
+    // 읽기 실패 후(또는 기동 시 DB가 없을 때) 재시도 최소 간격
+    private static final long RETRY_INTERVAL_MS = 5000;
+
+    private static volatile Snapshot current;
+    private static volatile long lastAttemptAt;
+    private static final AtomicBoolean REFRESHING = new AtomicBoolean();
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "document-catalog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** 문서 한 건. content는 따옴표 없는 JSON 이스케이프 UTF-8 */
+    static final class Document {
+        final long id;
+        final String title;
+        final byte[] content;
+        final int titleOrder;
+
+        Document(long id, String title, byte[] content, int titleOrder) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+            this.titleOrder = titleOrder;
+        }
+    }
+
+    /** 그룹과 제목 순 문서 목록 */
+    static final class Group {
+        final String name;
+        final String selectOption;
+        final List<Document> documents;
+
+        Group(String name, String selectOption, List<Document> documents) {
+            this.name = name;
+            this.selectOption = selectOption;
+            this.documents = documents;
+        }
+    }
+
+    static final class Snapshot {
+        /** 동의 화면에 보이는 그룹 (group_name에 '론닥' 포함), 그룹명 순 */
+        final List<Group> consentGroups;
+        final Map<String, Group> groups;
+        final Map<String, Document> byTitle;
+        final long loadedAt;
+        final long contentBytes;
+
+        Snapshot(List<Group> consentGroups, Map<String, Group> groups, Map<String, Document> byTitle, long loadedAt,
+                long contentBytes) {
+            this.consentGroups = consentGroups;
+            this.groups = groups;
+            this.byTitle = byTitle;
+            this.loadedAt = loadedAt;
+            this.contentBytes = contentBytes;
+        }
+
+        Group group(String name) {
+            return groups.get(name);
+        }
+
+        Document document(String title) {
+            return byTitle.get(title);
+        }
+    }
+
+    private DocumentCatalog() {
+    }
+
+    /**
+     * 현재 스냅샷 (DB 조회 없음). 만료되었거나 아직 없으면 백그라운드 재로딩만 요청하고 지금 것을 반환.
+     * 한 번도 읽지 못했으면 null
+     */
+    static Snapshot snapshot() {
+        Snapshot snap = current;
+        long now = System.currentTimeMillis();
+        if ((snap == null || now - snap.loadedAt >= TTL_MILLIS) && now - lastAttemptAt >= RETRY_INTERVAL_MS) {
+            refreshInBackground();
+        }
+        return snap;
+    }
+
+    /**
+     * 백그라운드 재로딩 요청 (이미 대기/진행 중이면 무시)
+     */
+    private static void refreshInBackground() {
+        if (!REFRESHING.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LOADER.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Document catalog refresh failed", e);
+                } finally {
+                    REFRESHING.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            REFRESHING.set(false);
+        }
+    }
+
+    static void shutdown() {
+        LOADER.shutdownNow();
+    }
+
+    /**
+     * documents 전체를 다시 읽는다. 실패하면 기존 스냅샷을 유지하고 false
+     */
+    static synchronized boolean refresh() {
+        lastAttemptAt = System.currentTimeMillis();
+        Snapshot loaded = load();
+        if (loaded == null) {
+            return false;
+        }
+        current = loaded;
+        logger.info("Document catalog loaded: " + loaded.groups.size() + " groups, " + loaded.byTitle.size()
+                + " titles, " + loaded.contentBytes + " content bytes");
+        // 약관 응답 캐시도 다시 만들게 함 (내용이 같으면 ETag는 그대로)
+        ReferenceCache.invalidate(ReferenceCache.Resource.DOCUMENT_GROUPS);
+        ReferenceCache.invalidate(ReferenceCache.Resource.GROUP_DETAILS);
+        ReferenceCache.invalidate(ReferenceCache.Resource.DOCUMENT_CONTENT);
+        return true;
+    }
+
+    private static Snapshot load() {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        Map<String, String> selectOptions = new LinkedHashMap<>();
+        Map<String, List<Document>> documentsByGroup = new HashMap<>();
+        Map<String, Document> byTitle = new HashMap<>();
+        long contentBytes = 0;
+        try (Connection conn = Database.getConnection();
+                PreparedStatement ps = conn.prepareStatement(LOAD_SQL);
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String title = rs.getString("title");
+                String content = rs.getString("content");
+                Document doc = new Document(rs.getLong("id"), title != null ? title : "",
+                        encoder.quoteAsUTF8(content != null ? content : ""), rs.getInt("title_order"));
+                contentBytes += doc.content.length;
+                // 같은 제목이 여러 건이면 가장 최근(id가 큰) 문서
+                byTitle.merge(doc.title, doc, (a, b) -> a.id >= b.id ? a : b);
+
+                String groupName = rs.getString("group_name");
+                if (groupName != null) {
+                    // 그룹별 첫 행(group_number가 가장 작은 행)의 select_option
+                    String selectOption = rs.getString("select_option");
+                    selectOptions.putIfAbsent(groupName, selectOption != null ? selectOption : "");
+                    documentsByGroup.computeIfAbsent(groupName, k -> new ArrayList<>()).add(doc);
+                }
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING, "Failed to load document catalog: " + ex.getMessage());
+            return null;
+        }
+
+        Map<String, Group> groups = new LinkedHashMap<>();
+        List<Group> consentGroups = new ArrayList<>();
+        for (Map.Entry<String, String> entry : selectOptions.entrySet()) {
+            List<Document> docs = documentsByGroup.get(entry.getKey());
+            docs.sort(Comparator.comparingInt(d -> d.titleOrder));
+            Group group = new Group(entry.getKey(), entry.getValue(), Collections.unmodifiableList(docs));
+            groups.put(group.name, group);
+            if (group.name.contains("론닥")) {
+                consentGroups.add(group);
+            }
+        }
+        return new Snapshot(Collections.unmodifiableList(consentGroups), Collections.unmodifiableMap(groups),
+                Collections.unmodifiableMap(byTitle), System.currentTimeMillis(), contentBytes);
+    }
+
+    private static long readTtlMillis() {
+        String value = System.getenv("DOCUMENT_CATALOG_TTL_MS");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(0L, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid DOCUMENT_CATALOG_TTL_MS value '" + value + "', using default 300000");
+            }
+        }
+        return 300_000L;
+    }
+}
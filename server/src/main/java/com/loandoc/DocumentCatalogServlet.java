@@ -0,0 +1,61 @@
+package com.loandoc;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 약관 메모리 카탈로그 조회/갱신
+ * GET  /api/documents/catalog          - 카탈로그 현황 (그룹/문서 수, 본문 바이트)
+ * POST /api/documents/catalog          - 약관 변경(마이그레이션) 후 다시 읽기
+ */
+@WebServlet(urlPatterns = { "/api/documents/catalog" })
+public class DocumentCatalogServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        ObjectNode out = mapper.createObjectNode();
+        DocumentCatalog.Snapshot catalog = DocumentCatalog.snapshot();
+        if (catalog == null) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            out.put("ok", false);
+            out.put("error", "document catalog not loaded (database unavailable)");
+        } else {
+            writeStats(out, catalog);
+        }
+        resp.getWriter().print(mapper.writeValueAsString(out));
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        ObjectNode out = mapper.createObjectNode();
+        if (!DocumentCatalog.refresh()) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            out.put("ok", false);
+            out.put("error", "database unavailable, keeping previous document catalog");
+        } else {
+            writeStats(out, DocumentCatalog.snapshot());
+        }
+        resp.getWriter().print(mapper.writeValueAsString(out));
+    }
+
+    private static void writeStats(ObjectNode out, DocumentCatalog.Snapshot catalog) {
+        out.put("ok", true);
+        out.put("groups", catalog.groups.size());
+        out.put("consentGroups", catalog.consentGroups.size());
+        out.put("titles", catalog.byTitle.size());
+        out.put("contentBytes", catalog.contentBytes);
+        out.put("loadedAt", catalog.loadedAt);
+    }
+}
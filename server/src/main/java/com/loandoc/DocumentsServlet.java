@@ -2,7 +2,6 @@ package com.loandoc;
 
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -35,27 +34,12 @@ public class DocumentsServlet extends HttpServlet {
         ObjectNode response = mapper.createObjectNode();
         ArrayNode documents = mapper.createArrayNode();
 
-        // DB connection settings
-        String dbUrl = System.getenv("DB_URL");
-        String dbUser = System.getenv("DB_USER");
-        String dbPass = System.getenv("DB_PASSWORD");
-
-        if (dbUrl == null || dbUrl.isEmpty()) {
-            dbUrl = "jdbc:postgresql://localhost:5432/loandoc";
-        } else if (!dbUrl.startsWith("jdbc:")) {
-            dbUrl = "jdbc:postgresql://" + dbUrl;
-        }
-        
-        if (dbUser == null || dbUser.isEmpty()) dbUser = "postgres";
-        if (dbPass == null || dbPass.isEmpty()) dbPass = "postgres";
-
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            Class.forName("org.postgresql.Driver");
-            conn = DriverManager.getConnection(dbUrl, dbUser, dbPass);
+            conn = Database.getConnection();
 
             String sql;
             if (groupName != null && !groupName.trim().isEmpty()) {
@@ -89,11 +73,6 @@ public class DocumentsServlet extends HttpServlet {
             response.set("documents", documents);
             response.put("count", documents.size());
 
-        } catch (ClassNotFoundException e) {
-            logger.log(Level.SEVERE, "PostgreSQL JDBC Driver not found", e);
-            response.put("ok", false);
-            response.put("error", "Database driver not found");
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Database error", e);
             response.put("ok", false);
@@ -0,0 +1,273 @@
+package com.loandoc;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * (비자 × 국적) → 은행별 비자/국적 심사 결과 사전 계산표
+ *
+ * 비자/국적 심사는 지원자의 VisaCode, CountryCode와 은행 설정 비트마스크, 은행별 규칙에만 의존하므로
+ * 모든 조합(VisaCode.values() × CountryCode.values(), UNKNOWN 포함)을 미리 계산해 두면 요청 경로는
+ * 셀 조회 한 번 + 나이/소득/체류/재직 숫자 비교만 남는다.
+ *
+ * - 셀마다 은행별 코드(short: 통과 플래그 + 국적 실패 사유)와 두 심사를 모두 통과한 은행 비트셋을 둔다.
+ * - 은행 설정 스냅샷(BankConfigCache)과 규칙 스냅샷(EligibilityRules) 한 쌍에 대해 만들어지며,
+ *   어느 한쪽이라도 바뀌면(참조 비교) 백그라운드 스레드에서 다시 만든다. 그동안은 은행별로 직접 계산한다.
+ */
+final class EligibilityMatrix {
+    private static final Logger logger = Logger.getLogger(EligibilityMatrix.class.getName());
+
+    // 코드 하위 비트: 통과 여부
+    static final int VISA_OK = 1;
+    static final int COUNTRY_OK = 2;
+    static final int COUNTRY_COMPUTED_OK = 4;  // 은행 설정(제외/필수 국가)만 본 결과 (countryDebug.countryValidComputed)
+    // 상위 비트: 국적 실패 사유
+    private static final int REASON_SHIFT = 3;
+    static final int REASON_NONE = 0;
+    static final int REASON_CONFIG = 1;        // 은행 설정 제외/필수 국가 → "E국가"
+    static final int REASON_RULE_COUNTRY = 2;  // REQUIRE_COUNTRY 규칙 → rule.countryError
+    static final int REASON_DENY = 3;          // DENY 규칙 i → rule.denyErrors[i] (사유 = REASON_DENY + i)
+
+    static final String VISA_ERROR = "E비자종류";
+    static final String COUNTRY_ERROR = "E국가";
+
+    private static final VisaCode[] VISAS = VisaCode.values();
+    private static final CountryCode[] COUNTRIES = CountryCode.values();
+
+    private static final AtomicReference<EligibilityMatrix> PROD = new AtomicReference<>();
+    private static final AtomicReference<EligibilityMatrix> TEST = new AtomicReference<>();
+    private static final AtomicBoolean PROD_PENDING = new AtomicBoolean();
+    private static final AtomicBoolean TEST_PENDING = new AtomicBoolean();
+
+    private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "eligibility-matrix");
+        t.setDaemon(true);
+        return t;
+    });
+
+    final List<BankConfig> banks;
+    final EligibilityRules rules;
+    final long builtAt;
+    final long buildNanos;
+    private final EligibilityRules.BankRule[] bankRules;
+    private final short[] codes;     // [cell * bankCount + bank]
+    private final long[] eligible;   // [cell * words + bank / 64]
+    private final int words;
+
+    private EligibilityMatrix(List<BankConfig> banks, EligibilityRules rules) {
+        long start = System.nanoTime();
+        int bankCount = banks.size();
+        this.banks = banks;
+        this.rules = rules;
+        this.bankRules = new EligibilityRules.BankRule[bankCount];
+        for (int b = 0; b < bankCount; b++) {
+            bankRules[b] = rules.forBank(banks.get(b).name);
+        }
+        this.words = (bankCount + 63) >>> 6;
+        this.codes = new short[cellCount() * bankCount];
+        this.eligible = new long[cellCount() * words];
+        for (VisaCode visa : VISAS) {
+            for (CountryCode country : COUNTRIES) {
+                int cell = cell(visa, country);
+                EligibilityRules.Applicant applicant = new EligibilityRules.Applicant(null, "", visa, country);
+                for (int b = 0; b < bankCount; b++) {
+                    int code = eligibility(banks.get(b), bankRules[b], applicant);
+                    codes[cell * bankCount + b] = (short) code;
+                    if ((code & (VISA_OK | COUNTRY_OK)) == (VISA_OK | COUNTRY_OK)) {
+                        eligible[cell * words + (b >>> 6)] |= 1L << b;
+                    }
+                }
+            }
+        }
+        this.builtAt = System.currentTimeMillis();
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 주어진 스냅샷 쌍으로 표를 만든다 (보관하지 않음)
+     */
+    static EligibilityMatrix build(List<BankConfig> banks, EligibilityRules rules) {
+        return new EligibilityMatrix(banks, rules);
+    }
+
+    /**
+     * 은행 한 곳의 비자/국적 심사 코드. 표를 만들 때와 표가 없을 때(직접 계산) 모두 이 함수를 쓴다.
+     */
+    static int eligibility(BankConfig bank, EligibilityRules.BankRule rule, EligibilityRules.Applicant applicant) {
+        int code = 0;
+
+        // 알 수 없는 비자/국적 값이 있는 규칙: 규칙이 없는 것으로 보지 않고 모두 불가
+        if (rule != null && rule.unresolved) {
+            return REASON_RULE_COUNTRY << REASON_SHIFT;
+        }
+
+        // 비자: 은행별 규칙(ALLOW_VISA)이 있으면 규칙, 없으면 은행 설정 허용 비자
+        boolean visaValid = rule != null && rule.hasVisaRule()
+                ? rule.visaAllowed(applicant)
+                : (bank.allowedVisaMask & applicant.visaBit) != 0L;
+        if (visaValid) {
+            code |= VISA_OK;
+        }
+
+        // 국적: 은행 설정 제외/필수 국가
+        boolean countryValidComputed = true;
+        if (bank.excludedCountries != null && (bank.excludedCountryMask & applicant.countryMask) != 0L) {
+            countryValidComputed = false;
+        }
+        if (bank.requiredCountries != null && (bank.requiredCountryMask & applicant.countryMask) == 0L) {
+            countryValidComputed = false;
+        }
+        int reason = countryValidComputed ? REASON_NONE : REASON_CONFIG;
+        if (countryValidComputed) {
+            code |= COUNTRY_COMPUTED_OK;
+        }
+
+        // 은행별 규칙 (REQUIRE_COUNTRY, DENY)이 설정 결과를 덮어씀
+        if (rule != null) {
+            if (rule.hasCountryRule()) {
+                reason = rule.countryAllowed(applicant) ? REASON_NONE : REASON_RULE_COUNTRY;
+            }
+            int denied = rule.denied(applicant);
+            if (denied >= 0) {
+                reason = REASON_DENY + denied;
+            }
+        }
+        if (reason == REASON_NONE) {
+            code |= COUNTRY_OK;
+        }
+        return code | reason << REASON_SHIFT;
+    }
+
+    static int reason(int code) {
+        return code >>> REASON_SHIFT;
+    }
+
+    static String visaError(EligibilityRules.BankRule rule) {
+        return rule != null && rule.hasVisaRule() ? rule.visaError : VISA_ERROR;
+    }
+
+    static String countryError(int code, EligibilityRules.BankRule rule) {
+        int reason = reason(code);
+        switch (reason) {
+            case REASON_NONE:
+                return "";
+            case REASON_CONFIG:
+                return COUNTRY_ERROR;
+            case REASON_RULE_COUNTRY:
+                return rule.countryError;
+            default:
+                return rule.denyErrors[reason - REASON_DENY];
+        }
+    }
+
+    /**
+     * 현재 스냅샷 쌍에 맞는 표. 아직 없거나 스냅샷이 바뀌었으면 백그라운드 재계산을 요청하고 null
+     */
+    static EligibilityMatrix get(boolean testMode, List<BankConfig> banks, EligibilityRules rules) {
+        EligibilityMatrix matrix = slot(testMode).get();
+        if (matrix != null && matrix.banks == banks && matrix.rules == rules) {
+            return matrix;
+        }
+        refresh(testMode);
+        return null;
+    }
+
+    /**
+     * 백그라운드 재계산 요청 (이미 대기 중이면 무시). BankConfigCache가 새 스냅샷을 읽었을 때도 호출
+     */
+    static void refresh(boolean testMode) {
+        AtomicBoolean pending = testMode ? TEST_PENDING : PROD_PENDING;
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            BUILDER.execute(() -> {
+                try {
+                    current(testMode);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Eligibility matrix build failed (testMode: " + testMode + ")", e);
+                } finally {
+                    pending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            pending.set(false);
+        }
+    }
+
+    /**
+     * 현재 은행 설정/규칙 스냅샷에 맞는 표. 필요하면 호출한 스레드에서 바로 만든다 (조회/관리용)
+     */
+    static EligibilityMatrix current(boolean testMode) {
+        List<BankConfig> banks = BankConfigCache.get(testMode);
+        EligibilityRules rules = EligibilityRules.current();
+        AtomicReference<EligibilityMatrix> slot = slot(testMode);
+        EligibilityMatrix matrix = slot.get();
+        if (matrix != null && matrix.banks == banks && matrix.rules == rules) {
+            return matrix;
+        }
+        matrix = build(banks, rules);
+        slot.set(matrix);
+        logger.info("Eligibility matrix built (testMode: " + testMode + ", banks: " + banks.size() + ", cells: "
+                + cellCount() + ", " + TimeUnit.NANOSECONDS.toMicros(matrix.buildNanos) + "us)");
+        return matrix;
+    }
+
+    static void shutdown() {
+        BUILDER.shutdownNow();
+    }
+
+    private static AtomicReference<EligibilityMatrix> slot(boolean testMode) {
+        return testMode ? TEST : PROD;
+    }
+
+    static int cellCount() {
+        return VISAS.length * COUNTRIES.length;
+    }
+
+    static int cell(VisaCode visa, CountryCode country) {
+        return visa.ordinal() * COUNTRIES.length + country.ordinal();
+    }
+
+    static int cell(EligibilityRules.Applicant applicant) {
+        return cell(applicant.visa, applicant.country);
+    }
+
+    static VisaCode visaOf(int cell) {
+        return VISAS[cell / COUNTRIES.length];
+    }
+
+    static CountryCode countryOf(int cell) {
+        return COUNTRIES[cell % COUNTRIES.length];
+    }
+
+    /** 셀의 은행 index 심사 코드 */
+    int code(int cell, int bank) {
+        return codes[cell * bankRules.length + bank];
+    }
+
+    /** 표를 만들 때 쓴 은행 규칙 (rules.forBank 결과) */
+    EligibilityRules.BankRule rule(int bank) {
+        return bankRules[bank];
+    }
+
+    boolean eligible(int cell, int bank) {
+        return (eligible[cell * words + (bank >>> 6)] & 1L << bank) != 0L;
+    }
+
+    int eligibleCount(int cell) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(eligible[cell * words + w]);
+        }
+        return count;
+    }
+}
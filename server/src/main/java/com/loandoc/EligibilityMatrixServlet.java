@@ -0,0 +1,158 @@
+package com.loandoc;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 비자×국적 사전 계산표 내보내기 (심사 결과 점검용)
+ * GET  /api/server/eligibility-matrix[?testMode=true&visa=E9&country=VN&format=csv]
+ *      JSON: 셀마다 통과 은행 index 목록과 실패 은행별 사유 (banks 배열 기준 index)
+ *      CSV : visa,country,bank,eligible,visaError,countryError 한 줄씩
+ * POST /api/server/eligibility-matrix[?testMode=true]  - 은행 설정/규칙 스냅샷을 다시 확인하고 표를 갱신
+ */
+@WebServlet(urlPatterns = { "/api/server/eligibility-matrix" })
+public class EligibilityMatrixServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        boolean testMode = "true".equalsIgnoreCase(req.getParameter("testMode"));
+        EligibilityMatrix matrix = EligibilityMatrix.current(testMode);
+        VisaCode visa = req.getParameter("visa") != null ? VisaCode.parse(req.getParameter("visa")) : null;
+        CountryCode country = req.getParameter("country") != null ? CountryCode.parse(req.getParameter("country")) : null;
+        if ("csv".equalsIgnoreCase(req.getParameter("format"))) {
+            writeCsv(resp, matrix, visa, country);
+        } else {
+            writeJson(resp, matrix, testMode, visa, country);
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        boolean testMode = "true".equalsIgnoreCase(req.getParameter("testMode"));
+        EligibilityMatrix matrix = EligibilityMatrix.current(testMode);
+        resp.setContentType("application/json; charset=utf-8");
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeBooleanField("ok", true);
+            writeSummary(gen, matrix, testMode);
+            gen.writeEndObject();
+        }
+    }
+
+    private void writeJson(HttpServletResponse resp, EligibilityMatrix matrix, boolean testMode, VisaCode visa,
+            CountryCode country) throws IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        List<BankConfig> banks = matrix.banks;
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeBooleanField("ok", true);
+            writeSummary(gen, matrix, testMode);
+            gen.writeArrayFieldStart("banks");
+            for (BankConfig bank : banks) {
+                gen.writeString(bank.name);
+            }
+            gen.writeEndArray();
+            gen.writeArrayFieldStart("cells");
+            for (int cell = 0; cell < EligibilityMatrix.cellCount(); cell++) {
+                if (!matches(cell, visa, country)) {
+                    continue;
+                }
+                gen.writeStartObject();
+                gen.writeStringField("visa", EligibilityMatrix.visaOf(cell).name());
+                gen.writeStringField("country", EligibilityMatrix.countryOf(cell).name());
+                gen.writeArrayFieldStart("eligible");
+                for (int b = 0; b < banks.size(); b++) {
+                    if (matrix.eligible(cell, b)) {
+                        gen.writeNumber(b);
+                    }
+                }
+                gen.writeEndArray();
+                gen.writeArrayFieldStart("failures");
+                for (int b = 0; b < banks.size(); b++) {
+                    if (matrix.eligible(cell, b)) {
+                        continue;
+                    }
+                    int code = matrix.code(cell, b);
+                    gen.writeStartObject();
+                    gen.writeNumberField("bank", b);
+                    if ((code & EligibilityMatrix.VISA_OK) == 0) {
+                        gen.writeStringField("visaError", EligibilityMatrix.visaError(matrix.rule(b)));
+                    }
+                    if ((code & EligibilityMatrix.COUNTRY_OK) == 0) {
+                        gen.writeStringField("countryError", EligibilityMatrix.countryError(code, matrix.rule(b)));
+                    }
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    private void writeCsv(HttpServletResponse resp, EligibilityMatrix matrix, VisaCode visa, CountryCode country)
+            throws IOException {
+        resp.setContentType("text/csv; charset=utf-8");
+        resp.setHeader("Content-Disposition", "attachment; filename=\"eligibility-matrix.csv\"");
+        PrintWriter out = resp.getWriter();
+        out.print("visa,country,bank,eligible,visaError,countryError\n");
+        List<BankConfig> banks = matrix.banks;
+        for (int cell = 0; cell < EligibilityMatrix.cellCount(); cell++) {
+            if (!matches(cell, visa, country)) {
+                continue;
+            }
+            String prefix = EligibilityMatrix.visaOf(cell).name() + "," + EligibilityMatrix.countryOf(cell).name() + ",";
+            for (int b = 0; b < banks.size(); b++) {
+                int code = matrix.code(cell, b);
+                out.print(prefix);
+                out.print(csv(banks.get(b).name));
+                out.print(matrix.eligible(cell, b) ? ",true," : ",false,");
+                out.print((code & EligibilityMatrix.VISA_OK) != 0 ? "" : csv(EligibilityMatrix.visaError(matrix.rule(b))));
+                out.print(',');
+                out.print(csv(EligibilityMatrix.countryError(code, matrix.rule(b))));
+                out.print('\n');
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeSummary(JsonGenerator gen, EligibilityMatrix matrix, boolean testMode) throws IOException {
+        gen.writeBooleanField("testMode", testMode);
+        gen.writeStringField("rulesSource", matrix.rules.source());
+        gen.writeStringField("builtAt", Instant.ofEpochMilli(matrix.builtAt).toString());
+        gen.writeNumberField("buildMicros", TimeUnit.NANOSECONDS.toMicros(matrix.buildNanos));
+        gen.writeNumberField("bankCount", matrix.banks.size());
+        gen.writeNumberField("cellCount", EligibilityMatrix.cellCount());
+    }
+
+    private static boolean matches(int cell, VisaCode visa, CountryCode country) {
+        return (visa == null || EligibilityMatrix.visaOf(cell) == visa)
+                && (country == null || EligibilityMatrix.countryOf(cell) == country);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
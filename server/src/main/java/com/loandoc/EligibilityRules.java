@@ -0,0 +1,401 @@
+package com.loandoc;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 은행별 비자/국적 심사 규칙 (컴파일된 불변 스냅샷)
+ *
+ * bank_eligibility_rule 테이블의 규칙을 읽어 은행별 비트마스크로 컴파일한다.
+ * 비자는 VisaCode, 국적은 CountryCode ordinal을 비트로 사용하므로,
+ * 요청 시에는 입력을 한 번만 코드로 바꾸고 은행마다 AND 연산만 한다.
+ * 테이블이 없으면 기존 하드코딩 규칙과 같은 내장 규칙을 사용한다.
+ *
+ * 비자/국적 값은 VisaCode, CountryCode 별칭/코드와 정확히 일치해야 한다. 알 수 없는 값이 있는 규칙은
+ * 비트 0으로 컴파일되어 "규칙 없음"이 되지 않도록 해당 은행을 모두 불가로 처리하고(fail closed),
+ * 이전 스냅샷이 있으면 새 스냅샷으로 바꾸지 않고 이전 규칙을 유지한다.
+ */
+final class EligibilityRules {
+    private static final Logger logger = Logger.getLogger(EligibilityRules.class.getName());
+
+    static final String TABLE = "bank_eligibility_rule";
+
+    static final String ALLOW_VISA = "ALLOW_VISA";
+    static final String REQUIRE_COUNTRY = "REQUIRE_COUNTRY";
+    static final String DENY = "DENY";
+
+    private static final AtomicLong generation = new AtomicLong();
+    private static final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // 마지막으로 읽은 규칙의 알 수 없는 값 (비어 있으면 정상 반영)
+    private static volatile List<String> rejected = Collections.emptyList();
+
+    private final Map<String, BankRule> byBank;
+    private final String source;
+    private final List<String> unresolved;
+
+    private EligibilityRules(List<RuleRow> rows, String source) {
+        Map<String, BankRuleBuilder> builders = new LinkedHashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (RuleRow row : rows) {
+            BankRuleBuilder builder = builders.computeIfAbsent(row.bankName, BankRuleBuilder::new);
+            long visaMask = 0L;
+            for (String visa : row.visaTypes) {
+                VisaCode code = VisaCode.parse(visa);
+                if (code == VisaCode.UNKNOWN) {
+                    logger.warning("Unknown visa type '" + visa + "' in eligibility rule for " + row.bankName);
+                    unknown.add(row.bankName + ": visa '" + visa + "'");
+                    builder.unresolved = true;
+                }
+                visaMask |= code.bit();
+            }
+            long countryMask = 0L;
+            for (String country : row.countries) {
+                CountryCode code = CountryCode.lookup(country);
+                if (code == CountryCode.UNKNOWN) {
+                    logger.warning("Unknown country '" + country + "' in eligibility rule for " + row.bankName);
+                    unknown.add(row.bankName + ": country '" + country + "'");
+                    builder.unresolved = true;
+                }
+                countryMask |= code.bit();
+            }
+            builder.add(row, visaMask, countryMask);
+        }
+        Map<String, BankRule> compiled = new HashMap<>();
+        builders.forEach((bank, builder) -> compiled.put(bank, builder.build()));
+        this.byBank = Collections.unmodifiableMap(compiled);
+        this.source = source;
+        this.unresolved = Collections.unmodifiableList(unknown);
+    }
+
+    /**
+     * 현재 규칙 스냅샷. 없거나 무효화/만료된 경우 다시 읽는다.
+     */
+    static EligibilityRules current() {
+        Snapshot snap = current.get();
+        if (snap != null && snap.isFresh(generation.get(), System.nanoTime())) {
+            return snap.rules;
+        }
+        synchronized (EligibilityRules.class) {
+            snap = current.get();
+            long gen = generation.get();
+            if (snap != null && snap.isFresh(gen, System.nanoTime())) {
+                return snap.rules;
+            }
+            EligibilityRules loaded = load();
+            if (loaded == null) {
+                // 조회 실패: 이전 스냅샷 유지, 없으면 내장 규칙
+                loaded = snap != null ? snap.rules : builtin();
+            } else {
+                rejected = loaded.unresolved;
+                if (!loaded.unresolved.isEmpty() && snap != null) {
+                    // 알 수 없는 값이 있는 규칙은 반영하지 않음 (처음 읽을 때는 해당 은행 불가로 적용)
+                    logger.warning("Eligibility rules with unknown values not applied, keeping previous rules: "
+                            + loaded.unresolved);
+                    loaded = snap.rules;
+                }
+            }
+            current.set(new Snapshot(loaded, gen, System.nanoTime()));
+            return loaded;
+        }
+    }
+
+    /**
+     * 규칙 스냅샷 무효화 (다음 current()에서 다시 읽음)
+     */
+    static void invalidate() {
+        generation.incrementAndGet();
+        logger.info("Eligibility rules invalidated");
+    }
+
+    /**
+     * 요청 값(비자, 국적)을 코드로 변환한다. 요청당 한 번만 호출
+     */
+    static Applicant applicant(String visaType, String nationality) {
+        String natLower = nationality == null ? "" : nationality.trim().toLowerCase(Locale.ROOT);
+        return new Applicant(nationality, natLower, VisaCode.parse(visaType), CountryCode.parseLower(natLower));
+    }
+
+    /**
+     * 은행 규칙. 규칙이 없는 은행은 null (BankConfig 기본 허용 비자 사용)
+     */
+    BankRule forBank(String bankName) {
+        return bankName == null ? null : byBank.get(bankName);
+    }
+
+    Map<String, BankRule> banks() {
+        return byBank;
+    }
+
+    String source() {
+        return source;
+    }
+
+    /**
+     * 이 스냅샷에서 알 수 없었던 비자/국적 값 ("은행: country 'russia'" 형식)
+     */
+    List<String> unresolved() {
+        return unresolved;
+    }
+
+    /**
+     * 마지막으로 DB에서 읽은 규칙의 알 수 없는 값. 비어 있지 않으면 그 규칙은 반영되지 않았다
+     */
+    static List<String> rejected() {
+        return rejected;
+    }
+
+    private static EligibilityRules load() {
+        if (!SchemaCatalog.hasTable(TABLE)) {
+            logger.info(TABLE + " table not found, using built-in eligibility rules");
+            return builtin();
+        }
+        List<RuleRow> rows = new ArrayList<>();
+        String sql = "SELECT bank_name, rule_type, visa_types, countries, error_code, description FROM " + TABLE
+                + " WHERE use_it = 1 ORDER BY bank_name, id";
+        try (Connection conn = Database.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String type = rs.getString("rule_type");
+                if (!ALLOW_VISA.equals(type) && !REQUIRE_COUNTRY.equals(type) && !DENY.equals(type)) {
+                    logger.warning("Unknown eligibility rule_type '" + type + "' for bank " + rs.getString("bank_name"));
+                    continue;
+                }
+                rows.add(new RuleRow(rs.getString("bank_name"), type, strings(rs.getArray("visa_types")),
+                        strings(rs.getArray("countries")), rs.getString("error_code"), rs.getString("description")));
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING, "Failed to load eligibility rules: " + ex.getMessage(), ex);
+            return null;
+        }
+        logger.info("Loaded " + rows.size() + " eligibility rules from " + TABLE);
+        return new EligibilityRules(rows, "db");
+    }
+
+    private static String[] strings(Array array) throws SQLException {
+        if (array == null) {
+            return new String[0];
+        }
+        Object[] values = (Object[]) array.getArray();
+        List<String> out = new ArrayList<>(values.length);
+        for (Object v : values) {
+            if (v != null && !v.toString().isBlank()) {
+                out.add(v.toString());
+            }
+        }
+        return out.toArray(new String[0]);
+    }
+
+    /**
+     * 테이블이 없을 때 사용하는 내장 규칙 (마이그레이션 20261018 초기 데이터와 동일)
+     */
+    static EligibilityRules builtin() {
+        List<RuleRow> rows = new ArrayList<>();
+        rows.add(new RuleRow("예가람저축은행", ALLOW_VISA, new String[] {"E7", "E9", "F2", "F6", "F5"}, null, null, "E-7, E-9, F-2, F-6, F-5 만 대출승인"));
+        rows.add(new RuleRow("웰컴저축은행", ALLOW_VISA, new String[] {"E7", "E9"}, null, null, "E-7, E-9 만 대출승인"));
+        rows.add(new RuleRow("OK저축은행", ALLOW_VISA, new String[] {"E9"}, null, null, "E-9 만 대출승인"));
+        rows.add(new RuleRow("KB저축은행", ALLOW_VISA, new String[] {"E7", "E9", "F2", "F6", "F5"}, null, null, "E-7, E-9, F-2, F-6, F-5 만 허용"));
+        rows.add(new RuleRow("KB저축은행", REQUIRE_COUNTRY, null, new String[] {"nepal", "cambodia"}, null, "네팔, 캄보디아 국적만 허용"));
+        rows.add(new RuleRow("전북은행", DENY, new String[] {"E9"}, new String[] {"china", "india"}, null, "E-9 + 중국/인도 불가"));
+        rows.add(new RuleRow("전북은행", DENY, new String[] {"E4"}, new String[] {"pakistan", "kyrgyz", "laos", "timor"}, null,
+                "E-4 + 파키스탄/키르기스스탄/라오스/동티모르 불가"));
+        rows.add(new RuleRow("전북은행", DENY, new String[] {"F4"}, new String[] {"india", "vietnam", "philippine", "cambodia", "nepal",
+                "indonesia", "myanmar", "burma", "bangladesh", "thailand", "sri lanka", "srilanka", "pakistan", "kyrgyz", "laos", "timor"},
+                null, "F-4 + 제한 국가 불가"));
+        rows.add(new RuleRow("전북은행", DENY, new String[] {"F2", "F5", "F6"}, new String[] {"india"}, null, "F-2/F-5/F-6 + 인도 불가"));
+        return new EligibilityRules(rows, "builtin");
+    }
+
+    /**
+     * 요청 하나에 대한 비자/국적 코드와 비트
+     */
+    static final class Applicant {
+        final String nationality;
+        final String natLower;
+        final VisaCode visa;
+        final CountryCode country;
+        final long visaBit;
+        final long countryMask;
+
+        Applicant(String nationality, String natLower, VisaCode visa, CountryCode country) {
+            this.nationality = nationality;
+            this.natLower = natLower;
+            this.visa = visa;
+            this.country = country;
+            this.visaBit = visa.bit();
+            this.countryMask = country.bit();
+        }
+    }
+
+    /**
+     * 은행 하나의 컴파일된 규칙
+     */
+    static final class BankRule {
+        final long allowedVisas;
+        final String visaError;
+        final long requiredCountries;
+        final String countryError;
+        final long[] denyVisas;
+        final long[] denyCountries;
+        final String[] denyErrors;
+        final String[] denyDescriptions;
+        final boolean unresolved;      // 알 수 없는 비자/국적 값이 있는 규칙 → 모두 불가
+        private final boolean visaRule;
+        private final boolean countryRule;
+
+        private BankRule(boolean visaRule, long allowedVisas, String visaError, boolean countryRule,
+                long requiredCountries, String countryError, long[] denyVisas, long[] denyCountries,
+                String[] denyErrors, String[] denyDescriptions, boolean unresolved) {
+            this.visaRule = visaRule;
+            this.allowedVisas = allowedVisas;
+            this.visaError = visaError;
+            this.countryRule = countryRule;
+            this.requiredCountries = requiredCountries;
+            this.countryError = countryError;
+            this.denyVisas = denyVisas;
+            this.denyCountries = denyCountries;
+            this.denyErrors = denyErrors;
+            this.denyDescriptions = denyDescriptions;
+            this.unresolved = unresolved;
+        }
+
+        /** ALLOW_VISA 규칙이 있는지 (값을 하나도 알 수 없어 비트가 0이어도 규칙은 있음) */
+        boolean hasVisaRule() {
+            return visaRule;
+        }
+
+        boolean visaAllowed(Applicant a) {
+            return (allowedVisas & a.visaBit) != 0L;
+        }
+
+        boolean hasCountryRule() {
+            return countryRule;
+        }
+
+        boolean countryAllowed(Applicant a) {
+            return (requiredCountries & a.countryMask) != 0L;
+        }
+
+        /**
+         * 해당되는 첫 번째 DENY 규칙 번호, 없으면 -1
+         */
+        int denied(Applicant a) {
+            for (int i = 0; i < denyVisas.length; i++) {
+                if ((denyVisas[i] & a.visaBit) != 0L && (denyCountries[i] & a.countryMask) != 0L) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int denyRuleCount() {
+            return denyVisas.length;
+        }
+    }
+
+    private static final class BankRuleBuilder {
+        final String bankName;
+        boolean unresolved;
+        boolean visaRule;
+        long allowedVisas;
+        String visaError = "E비자종류";
+        boolean countryRule;
+        long requiredCountries;
+        String countryError = "E국가";
+        final List<long[]> denies = new ArrayList<>();
+        final List<String> denyErrors = new ArrayList<>();
+        final List<String> denyDescriptions = new ArrayList<>();
+
+        BankRuleBuilder(String bankName) {
+            this.bankName = bankName;
+        }
+
+        void add(RuleRow row, long visaMask, long countryMask) {
+            switch (row.type) {
+                case ALLOW_VISA:
+                    visaRule = true;
+                    allowedVisas |= visaMask;
+                    if (row.errorCode != null) {
+                        visaError = row.errorCode;
+                    }
+                    break;
+                case REQUIRE_COUNTRY:
+                    countryRule = true;
+                    requiredCountries |= countryMask;
+                    if (row.errorCode != null) {
+                        countryError = row.errorCode;
+                    }
+                    break;
+                default:
+                    if (visaMask == 0L || countryMask == 0L) {
+                        logger.warning("DENY rule without visa types or countries ignored: " + bankName);
+                        return;
+                    }
+                    denies.add(new long[] {visaMask, countryMask});
+                    denyErrors.add(row.errorCode != null ? row.errorCode : "E국가비자");
+                    denyDescriptions.add(row.description != null ? row.description : "");
+                    break;
+            }
+        }
+
+        BankRule build() {
+            long[] visas = new long[denies.size()];
+            long[] countries = new long[denies.size()];
+            for (int i = 0; i < denies.size(); i++) {
+                visas[i] = denies.get(i)[0];
+                countries[i] = denies.get(i)[1];
+            }
+            return new BankRule(visaRule, allowedVisas, visaError, countryRule, requiredCountries, countryError,
+                    visas, countries, denyErrors.toArray(new String[0]), denyDescriptions.toArray(new String[0]),
+                    unresolved);
+        }
+    }
+
+    private static final class RuleRow {
+        final String bankName;
+        final String type;
+        final String[] visaTypes;
+        final String[] countries;
+        final String errorCode;
+        final String description;
+
+        RuleRow(String bankName, String type, String[] visaTypes, String[] countries, String errorCode, String description) {
+            this.bankName = bankName;
+            this.type = type;
+            this.visaTypes = visaTypes != null ? visaTypes : new String[0];
+            this.countries = countries != null ? countries : new String[0];
+            this.errorCode = errorCode != null && !errorCode.isBlank() ? errorCode : null;
+            this.description = description;
+        }
+    }
+
+    private static final class Snapshot {
+        final EligibilityRules rules;
+        final long generation;
+        final long loadedAt;
+
+        Snapshot(EligibilityRules rules, long generation, long loadedAt) {
+            this.rules = rules;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isFresh(long currentGeneration, long now) {
+            return generation == currentGeneration && now - loadedAt < BankConfigCache.TTL_NANOS;
+        }
+    }
+}
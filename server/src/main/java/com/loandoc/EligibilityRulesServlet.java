@@ -0,0 +1,68 @@
+package com.loandoc;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 대출 심사 규칙 조회/갱신
+ * GET  /api/server/eligibility-rules  - 현재 컴파일된 규칙 요약
+ * POST /api/server/eligibility-rules  - bank_eligibility_rule 수정 후 재배포 없이 다시 읽기
+ */
+@WebServlet(urlPatterns = { "/api/server/eligibility-rules" })
+public class EligibilityRulesServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        resp.getWriter().print(mapper.writeValueAsString(describe(EligibilityRules.current())));
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        EligibilityRules.invalidate();
+        ObjectNode out = describe(EligibilityRules.current());
+        List<String> rejected = EligibilityRules.rejected();
+        if (!rejected.isEmpty()) {
+            // 알 수 없는 비자/국적 값: 새 규칙은 반영되지 않음
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            out.put("ok", false);
+            out.put("error", "unknown visa types or countries in " + EligibilityRules.TABLE);
+            ArrayNode unknown = out.putArray("unknown");
+            rejected.forEach(unknown::add);
+        }
+        resp.getWriter().print(mapper.writeValueAsString(out));
+    }
+
+    private ObjectNode describe(EligibilityRules rules) {
+        ObjectNode out = mapper.createObjectNode();
+        out.put("ok", true);
+        out.put("source", rules.source());
+        ObjectNode banks = out.putObject("banks");
+        for (Map.Entry<String, EligibilityRules.BankRule> e : new TreeMap<>(rules.banks()).entrySet()) {
+            EligibilityRules.BankRule rule = e.getValue();
+            ObjectNode node = banks.putObject(e.getKey());
+            node.put("visaRule", rule.hasVisaRule());
+            node.put("countryRule", rule.hasCountryRule());
+            node.put("denyRules", rule.denyRuleCount());
+            if (rule.unresolved) {
+                node.put("unresolved", true);
+            }
+        }
+        return out;
+    }
+}
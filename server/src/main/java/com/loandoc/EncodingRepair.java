@@ -0,0 +1,374 @@
+package com.loandoc;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 깨진 한글(mojibake) 일괄 복구
+ *
+ * UTF-8 바이트가 ISO-8859-1/Windows-1252/EUC-KR로 잘못 해석되어 저장된 문자열("ì \u0080..." 등)을
+ * 테이블에서 한 번에 찾아 고친다. 고친 뒤에는 읽기 경로(BankInfoServlet.fixEncoding)가 isClean 한 번으로 끝난다.
+ *
+ * - 대상 테이블의 문자열 컬럼 전체를 id 구간(ENCODING_REPAIR_CHUNK, 기본 500) 단위로 나눠
+ *   ENCODING_REPAIR_THREADS(기본 4)개 스레드에서 읽고, 구간마다 한 트랜잭션으로 UPDATE 한다.
+ * - UPDATE는 읽은 값이 그대로일 때만 적용한다 (그사이 수정된 값은 건너뜀).
+ * - dryRun이면 읽기만 하고 고칠 목록과 고칠 수 없는 값(suspect) 목록을 보고한다.
+ * - "????" 처럼 이미 바이트가 사라진 값은 되돌릴 수 없으므로 KNOWN_FIXES에 적은 것만 고친다.
+ */
+final class EncodingRepair {
+    private static final Logger logger = Logger.getLogger(EncodingRepair.class.getName());
+
+    static final String[] TABLES = { "bank_info", "test_bank_info", "nationality_loan", "test_nationality_loan" };
+
+    private static final int CHUNK = Math.max(1, readInt("ENCODING_REPAIR_CHUNK", 500));
+    private static final int THREADS = Math.max(1, readInt("ENCODING_REPAIR_THREADS", 4));
+    // 보고서에 담는 최대 건수 (건수 집계는 전부)
+    static final int REPORT_LIMIT = 500;
+
+    private static final Charset[] SOURCE_CHARSETS = {
+            StandardCharsets.ISO_8859_1, Charset.forName("windows-1252"), Charset.forName("EUC-KR") };
+
+    /** 바이트가 사라져 변환으로는 되돌릴 수 없는 값 (table, id, column, 바꿀 값). 값에 "??"가 있을 때만 적용 */
+    private static final String[][] KNOWN_FIXES = {
+            { "bank_info", "35", "bank_name", "예가람저축은행" },
+            { "test_bank_info", "35", "bank_name", "예가람저축은행" },
+    };
+
+    private EncodingRepair() {
+    }
+
+    /**
+     * 변환할 필요가 없는 문자열: 한글 음절이 하나라도 있거나 ASCII만 있음. 문자 한 번 훑기로 끝난다
+     */
+    static boolean isClean(String str) {
+        if (str == null) {
+            return true;
+        }
+        boolean ascii = true;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c >= 0xAC00 && c <= 0xD7AF) {
+                return true;
+            }
+            if (c >= 0x80) {
+                ascii = false;
+            }
+        }
+        return ascii;
+    }
+
+    /**
+     * 잘못 해석된 UTF-8 복원: 각 문자셋의 바이트로 되돌려 UTF-8로 다시 읽었을 때 한글이 나오고 '?'가 없으면 그 결과.
+     * 아니면 원본 (isClean이 아닌 값에만 부를 것)
+     */
+    static String repair(String str) {
+        for (Charset charset : SOURCE_CHARSETS) {
+            String converted = new String(str.getBytes(charset), StandardCharsets.UTF_8);
+            boolean hasKorean = false;
+            boolean hasQuestionMark = false;
+            for (int i = 0; i < converted.length(); i++) {
+                char c = converted.charAt(i);
+                if (c >= 0xAC00 && c <= 0xD7AF) {
+                    hasKorean = true;
+                }
+                if (c == '?') {
+                    hasQuestionMark = true;
+                }
+            }
+            if (hasKorean && !hasQuestionMark) {
+                return converted;
+            }
+        }
+        return str;
+    }
+
+    /** 고쳤거나(dryRun이면 고칠) 값 한 건 */
+    record Fix(String table, int id, String column, String before, String after, String method) {
+    }
+
+    /** 고칠 수 없는 의심 값 한 건 */
+    record Suspect(String table, int id, String column, String value) {
+    }
+
+    /** 테이블별 집계 */
+    static final class TableReport {
+        final String table;
+        final List<String> columns;
+        int chunks;
+        long rows;
+        long values;
+        long fixed;
+        long suspects;
+        long skipped;   // UPDATE 시점에 값이 바뀌어 있어 건너뜀
+        long millis;
+
+        TableReport(String table, List<String> columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+    }
+
+    static final class Report {
+        final boolean dryRun;
+        final List<TableReport> tables = new ArrayList<>();
+        final List<Fix> fixes = new ArrayList<>();
+        final List<Suspect> suspects = new ArrayList<>();
+        long millis;
+
+        Report(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+    }
+
+    /** 구간 하나의 결과 */
+    private static final class ChunkResult {
+        long rows;
+        long values;
+        long skipped;
+        final List<Fix> fixes = new ArrayList<>();
+        final List<Suspect> suspects = new ArrayList<>();
+    }
+
+    /**
+     * 전체 대상 테이블 검사/복구. 동시에 한 번만 실행된다
+     */
+    static synchronized Report run(boolean dryRun) throws SQLException {
+        long start = System.nanoTime();
+        Report report = new Report(dryRun);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "encoding-repair");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (String table : TABLES) {
+                if (!SchemaCatalog.hasTable(table) || !SchemaCatalog.hasColumn(table, "id")) {
+                    continue;
+                }
+                report.tables.add(runTable(pool, table, dryRun, report));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        report.millis = (System.nanoTime() - start) / 1_000_000L;
+        long fixed = report.tables.stream().mapToLong(t -> t.fixed).sum();
+        logger.info("Encoding repair " + (dryRun ? "dry-run" : "applied") + ": " + fixed + " values in "
+                + report.tables.size() + " tables (" + report.millis + "ms)");
+        if (!dryRun && fixed > 0) {
+            // bank_name 등이 바뀌었을 수 있음
+            BankConfigCache.invalidate(false);
+            BankConfigCache.invalidate(true);
+            ReferenceCache.invalidate(ReferenceCache.Resource.BANK_INFO);
+            ReferenceCache.invalidate(ReferenceCache.Resource.NATIONALITY_LOAN);
+        }
+        return report;
+    }
+
+    private static TableReport runTable(ExecutorService pool, String table, boolean dryRun, Report report)
+            throws SQLException {
+        long start = System.nanoTime();
+        long minId;
+        long maxId;
+        List<String> columns;
+        try (Connection conn = Database.getConnection()) {
+            columns = textColumns(conn, table);
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT min(id), max(id) FROM " + table);
+                    ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                minId = rs.getLong(1);
+                maxId = rs.wasNull() ? minId - 1 : rs.getLong(2);
+            }
+        }
+        TableReport tableReport = new TableReport(table, columns);
+        if (columns.isEmpty() || maxId < minId) {
+            return tableReport;
+        }
+        List<Future<ChunkResult>> futures = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += CHUNK) {
+            long lo = from;
+            long hi = Math.min(maxId, from + CHUNK - 1);
+            futures.add(pool.submit(() -> runChunk(table, columns, lo, hi, dryRun)));
+        }
+        tableReport.chunks = futures.size();
+        for (Future<ChunkResult> future : futures) {
+            ChunkResult chunk;
+            try {
+                chunk = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Encoding repair interrupted", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof SQLException ? (SQLException) e.getCause()
+                        : new SQLException("Encoding repair failed for " + table, e.getCause());
+            }
+            tableReport.rows += chunk.rows;
+            tableReport.values += chunk.values;
+            tableReport.skipped += chunk.skipped;
+            tableReport.fixed += chunk.fixes.size();
+            tableReport.suspects += chunk.suspects.size();
+            for (Fix fix : chunk.fixes) {
+                if (report.fixes.size() < REPORT_LIMIT) {
+                    report.fixes.add(fix);
+                }
+            }
+            for (Suspect suspect : chunk.suspects) {
+                if (report.suspects.size() < REPORT_LIMIT) {
+                    report.suspects.add(suspect);
+                }
+            }
+        }
+        tableReport.millis = (System.nanoTime() - start) / 1_000_000L;
+        return tableReport;
+    }
+
+    private static ChunkResult runChunk(String table, List<String> columns, long lo, long hi, boolean dryRun)
+            throws SQLException {
+        ChunkResult result = new ChunkResult();
+        StringBuilder select = new StringBuilder("SELECT id");
+        for (String column : columns) {
+            select.append(", ").append(quote(column));
+        }
+        select.append(" FROM ").append(table).append(" WHERE id BETWEEN ? AND ? ORDER BY id");
+
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(select.toString())) {
+                stmt.setLong(1, lo);
+                stmt.setLong(2, hi);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        result.rows++;
+                        int id = rs.getInt("id");
+                        for (String column : columns) {
+                            String value = rs.getString(column);
+                            if (value == null) {
+                                continue;
+                            }
+                            result.values++;
+                            check(table, id, column, value, result);
+                        }
+                    }
+                }
+            }
+            if (!dryRun && !result.fixes.isEmpty()) {
+                apply(conn, table, result);
+            }
+        }
+        return result;
+    }
+
+    private static void check(String table, int id, String column, String value, ChunkResult result) {
+        String known = knownFix(table, id, column);
+        if (known != null && value.contains("??") && !value.equals(known)) {
+            result.fixes.add(new Fix(table, id, column, value, known, "known"));
+            return;
+        }
+        if (isClean(value)) {
+            if (value.contains("??")) {
+                result.suspects.add(new Suspect(table, id, column, value));
+            }
+            return;
+        }
+        String repaired = repair(value);
+        if (!repaired.equals(value)) {
+            result.fixes.add(new Fix(table, id, column, value, repaired, "utf8"));
+        } else if (hasLatin1(value)) {
+            // 한글 없이 Ã, Â, ì 같은 문자만 있는데 되돌릴 수 없는 값
+            result.suspects.add(new Suspect(table, id, column, value));
+        }
+    }
+
+    /**
+     * 구간의 수정 사항을 한 트랜잭션으로 반영. 읽은 뒤 값이 바뀐 행은 건너뛴다
+     */
+    private static void apply(Connection conn, String table, ChunkResult result) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            List<Fix> applied = new ArrayList<>();
+            for (Fix fix : result.fixes) {
+                String sql = "UPDATE " + table + " SET " + quote(fix.column()) + " = ? WHERE id = ? AND "
+                        + quote(fix.column()) + " = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, fix.after());
+                    stmt.setInt(2, fix.id());
+                    stmt.setString(3, fix.before());
+                    if (stmt.executeUpdate() > 0) {
+                        applied.add(fix);
+                    } else {
+                        result.skipped++;
+                    }
+                }
+            }
+            conn.commit();
+            result.fixes.retainAll(applied);
+        } catch (SQLException e) {
+            conn.rollback();
+            logger.log(Level.WARNING, "Encoding repair rolled back for " + table + ": " + e.getMessage());
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static List<String> textColumns(Connection conn, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        String sql = "SELECT column_name FROM information_schema.columns WHERE table_schema = current_schema() "
+                + "AND table_name = ? AND data_type IN ('text', 'character varying', 'character') ORDER BY ordinal_position";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(rs.getString(1));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String knownFix(String table, int id, String column) {
+        for (String[] fix : KNOWN_FIXES) {
+            if (fix[0].equals(table) && Integer.parseInt(fix[1]) == id && fix[2].equals(column)) {
+                return fix[3];
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasLatin1(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c >= 0x80 && c <= 0xFF) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    private static int readInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,116 @@
+package com.loandoc;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 깨진 한글 일괄 복구 (EncodingRepair) - 로그인 세션 필요
+ * POST /api/server/encoding-repair?dryRun=true  - 고칠 값/고칠 수 없는 값 보고만
+ * POST /api/server/encoding-repair              - 실제 반영 (같은 보고서 형식)
+ * GET은 받지 않는다 (크롤러/프리페치가 네 테이블 전체 스캔을 시작하지 않도록)
+ */
+@WebServlet(urlPatterns = { "/api/server/encoding-repair" })
+public class EncodingRepairServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = Logger.getLogger(EncodingRepairServlet.class.getName());
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        // 세션 확인
+        HttpSession session = req.getSession(false);
+        if (session == null || session.getAttribute("userId") == null) {
+            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+                gen.writeStartObject();
+                gen.writeBooleanField("ok", false);
+                gen.writeStringField("error", "로그인이 필요합니다.");
+                gen.writeEndObject();
+            }
+            return;
+        }
+        boolean dryRun = "true".equalsIgnoreCase(req.getParameter("dryRun"));
+        logger.info("Encoding repair requested by " + session.getAttribute("userId") + " (dryRun: " + dryRun + ")");
+        run(dryRun, resp);
+    }
+
+    private void run(boolean dryRun, HttpServletResponse resp) throws IOException {
+        EncodingRepair.Report report;
+        try {
+            report = EncodingRepair.run(dryRun);
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Encoding repair failed (dryRun: " + dryRun + ")", e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+                gen.writeStartObject();
+                gen.writeBooleanField("ok", false);
+                gen.writeStringField("error", "Database error: " + e.getMessage());
+                gen.writeEndObject();
+            }
+            return;
+        }
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeBooleanField("ok", true);
+            gen.writeBooleanField("dryRun", report.dryRun);
+            gen.writeNumberField("millis", report.millis);
+            gen.writeArrayFieldStart("tables");
+            for (EncodingRepair.TableReport table : report.tables) {
+                gen.writeStartObject();
+                gen.writeStringField("table", table.table);
+                gen.writeArrayFieldStart("columns");
+                for (String column : table.columns) {
+                    gen.writeString(column);
+                }
+                gen.writeEndArray();
+                gen.writeNumberField("chunks", table.chunks);
+                gen.writeNumberField("rows", table.rows);
+                gen.writeNumberField("values", table.values);
+                gen.writeNumberField("fixed", table.fixed);
+                gen.writeNumberField("suspects", table.suspects);
+                gen.writeNumberField("skipped", table.skipped);
+                gen.writeNumberField("millis", table.millis);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            // 최대 EncodingRepair.REPORT_LIMIT 건씩
+            gen.writeArrayFieldStart("fixes");
+            for (EncodingRepair.Fix fix : report.fixes) {
+                gen.writeStartObject();
+                gen.writeStringField("table", fix.table());
+                gen.writeNumberField("id", fix.id());
+                gen.writeStringField("column", fix.column());
+                gen.writeStringField("before", fix.before());
+                gen.writeStringField("after", fix.after());
+                gen.writeStringField("method", fix.method());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeArrayFieldStart("suspects");
+            for (EncodingRepair.Suspect suspect : report.suspects) {
+                gen.writeStartObject();
+                gen.writeStringField("table", suspect.table());
+                gen.writeNumberField("id", suspect.id());
+                gen.writeStringField("column", suspect.column());
+                gen.writeStringField("value", suspect.value());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+}
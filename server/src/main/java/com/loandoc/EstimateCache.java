@@ -0,0 +1,380 @@
+package com.loandoc;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * 대출 예상 결과 캐시 (같은 지원자 조건 + 같은 은행/규칙 스냅샷이면 같은 결과)
+ *
+ * - 키: 정규화한 EstimateProfile(국적은 trim/소문자) + 은행 설정 스냅샷 + 규칙 스냅샷.
+ *   스냅샷은 BankConfigCache/EligibilityRules가 다시 읽을 때마다 새 객체이므로 참조 비교로 버전을 구분하고,
+ *   이전 스냅샷 키는 더 이상 조회되지 않다가 용량 초과 시 밀려난다.
+ * - 용량은 항목 수가 아니라 결과에 담긴 은행 수 합계(ESTIMATE_CACHE_MAX_WEIGHT, 기본 100000, 0이면 끔).
+ * - 축출은 LRU, 입장은 TinyLFU: 용량이 찼을 때 새 키의 최근 조회 빈도가 밀려날 항목보다 높을 때만 저장한다.
+ *   빈도는 4행 count-min sketch (카운터 상한 15, 일정 횟수마다 절반으로 줄여 오래된 인기 반영을 낮춤).
+ * - 조회는 ConcurrentHashMap에서 락 없이 한다. 조회 기록(LRU 순서, 빈도)은 스레드별 줄무늬 버퍼에 모았다가
+ *   버퍼가 차면 LOCK을 얻을 수 있을 때만 한꺼번에 반영한다 (W-TinyLFU 방식, 못 얻으면 기록을 버림).
+ *   LOCK은 저장/축출과 버퍼 반영에만 쓴다.
+ * - 같은 키를 동시에 계산하지 않도록 진행 중인 계산을 공유한다 (coalescing). 캐시 확인과 계산 등록은
+ *   IN_FLIGHT.computeIfAbsent 안에서 함께 해서, 방금 끝난 계산을 다시 시작하지 않는다.
+ * - degraded(시간 초과) 은행이 섞인 결과는 저장하지 않는다.
+ */
+final class EstimateCache {
+    private static final Logger logger = Logger.getLogger(EstimateCache.class.getName());
+
+    static final long MAX_WEIGHT = readMaxWeight();
+
+    private static final ConcurrentHashMap<Key, List<BankResult>> ENTRIES = new ConcurrentHashMap<>(256);
+    private static final ConcurrentHashMap<Key, CompletableFuture<List<BankResult>>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    // 아래는 LOCK 안에서만 사용
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Map<Key, List<BankResult>> LRU = new LinkedHashMap<>(256, 0.75f, true);
+    private static final FrequencySketch SKETCH = new FrequencySketch(MAX_WEIGHT);
+    private static final ReadBuffer READS = new ReadBuffer();
+    private static volatile long weight;
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder COALESCED = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+    private static final LongAdder REJECTED = new LongAdder();
+
+    @FunctionalInterface
+    interface Loader {
+        /** 은행별 심사 결과 (정렬 전) */
+        List<BankResult> load() throws Exception;
+    }
+
+    private EstimateCache() {
+    }
+
+    /**
+     * rank/comm 순으로 정렬된 상위 topK개(0 이하면 전체) 결과. 캐시에 없으면 loader로 심사 후 전체를 정렬해 저장한다.
+     * 캐시를 끈 경우에는 매번 심사하고 topK만 부분 정렬한다.
+     */
+    static List<BankResult> ranked(EstimateProfile profile, List<BankConfig> banks, EligibilityRules rules,
+            int topK, Loader loader) throws Exception {
+        if (MAX_WEIGHT <= 0) {
+            return BankResult.ranked(loader.load(), topK);
+        }
+        return top(get(profile, banks, rules, loader), topK);
+    }
+
+    private static List<BankResult> get(EstimateProfile profile, List<BankConfig> banks, EligibilityRules rules,
+            Loader loader) throws Exception {
+        Key key = new Key(profile, banks, rules);
+        record(key);
+        CompletableFuture<List<BankResult>> mine = new CompletableFuture<>();
+        while (true) {
+            List<BankResult> cached = ENTRIES.get(key);
+            if (cached != null) {
+                HITS.increment();
+                return cached;
+            }
+            // 캐시에 없을 때만 내 계산을 등록 (계산을 끝낸 쪽은 ENTRIES 저장 후 IN_FLIGHT에서 빠짐)
+            CompletableFuture<List<BankResult>> running = IN_FLIGHT.computeIfAbsent(key,
+                    k -> ENTRIES.containsKey(k) ? null : mine);
+            if (running == null) {
+                continue; // 그사이 저장됨
+            }
+            MISSES.increment();
+            if (running != mine) {
+                COALESCED.increment();
+                try {
+                    return running.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            try {
+                List<BankResult> results = List.copyOf(BankResult.ranked(loader.load(), 0));
+                if (cacheable(results)) {
+                    put(key, results);
+                }
+                mine.complete(results);
+                return results;
+            } catch (Exception | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                IN_FLIGHT.remove(key, mine);
+            }
+        }
+    }
+
+    /**
+     * 조회 기록. 버퍼가 차면 락을 얻을 수 있을 때만 LRU/빈도에 반영
+     */
+    private static void record(Key key) {
+        if (READS.offer(key) || !LOCK.tryLock()) {
+            return;
+        }
+        try {
+            READS.drain();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static List<BankResult> top(List<BankResult> ranked, int k) {
+        return k > 0 && k < ranked.size() ? ranked.subList(0, k) : ranked;
+    }
+
+    static void clear() {
+        LOCK.lock();
+        try {
+            READS.drain();
+            LRU.clear();
+            ENTRIES.clear();
+            weight = 0;
+        } finally {
+            LOCK.unlock();
+        }
+        logger.info("Estimate cache cleared");
+    }
+
+    static long hits() {
+        return HITS.sum();
+    }
+
+    static long misses() {
+        return MISSES.sum();
+    }
+
+    static long coalesced() {
+        return COALESCED.sum();
+    }
+
+    static long evictions() {
+        return EVICTIONS.sum();
+    }
+
+    static long rejected() {
+        return REJECTED.sum();
+    }
+
+    static int size() {
+        return ENTRIES.size();
+    }
+
+    static long weight() {
+        return weight;
+    }
+
+    private static boolean cacheable(List<BankResult> results) {
+        for (BankResult r : results) {
+            if (r.isDegraded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void put(Key key, List<BankResult> results) {
+        long w = Math.max(1, results.size());
+        if (w > MAX_WEIGHT) {
+            REJECTED.increment();
+            return;
+        }
+        LOCK.lock();
+        try {
+            // 입장 판단 전에 쌓인 조회 기록을 빈도에 반영
+            READS.drain();
+            if (LRU.containsKey(key)) {
+                return;
+            }
+            Iterator<Map.Entry<Key, List<BankResult>>> lru = LRU.entrySet().iterator();
+            long total = weight;
+            if (total + w > MAX_WEIGHT && lru.hasNext()) {
+                // TinyLFU 입장 판단: 새 키가 가장 오래된 항목보다 자주 조회되지 않았으면 저장하지 않음
+                Key eldest = LRU.keySet().iterator().next();
+                if (SKETCH.frequency(eldest.hash) >= SKETCH.frequency(key.hash)) {
+                    REJECTED.increment();
+                    return;
+                }
+            }
+            while (total + w > MAX_WEIGHT && lru.hasNext()) {
+                Map.Entry<Key, List<BankResult>> victim = lru.next();
+                lru.remove();
+                ENTRIES.remove(victim.getKey());
+                total -= Math.max(1, victim.getValue().size());
+                EVICTIONS.increment();
+            }
+            LRU.put(key, results);
+            ENTRIES.put(key, results);
+            weight = total + w;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static long readMaxWeight() {
+        String value = System.getenv("ESTIMATE_CACHE_MAX_WEIGHT");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid ESTIMATE_CACHE_MAX_WEIGHT value '" + value + "', using default 100000");
+            }
+        }
+        return 100_000L;
+    }
+
+    /**
+     * 캐시 키. 지원자 조건은 값 비교, 스냅샷은 참조 비교
+     */
+    private static final class Key {
+        final EstimateProfile profile;
+        final List<BankConfig> banks;
+        final EligibilityRules rules;
+        final int hash;
+
+        Key(EstimateProfile profile, List<BankConfig> banks, EligibilityRules rules) {
+            String nationality = profile.nationality() == null ? "" : profile.nationality().trim().toLowerCase(Locale.ROOT);
+            this.profile = nationality.equals(profile.nationality()) ? profile
+                    : new EstimateProfile(profile.visaType(), nationality, profile.remainMonths(), profile.annualIncome(),
+                            profile.age(), profile.workingMonths(), profile.healthInsurance(), profile.testMode());
+            this.banks = banks;
+            this.rules = rules;
+            int h = this.profile.hashCode();
+            h = 31 * h + System.identityHashCode(banks);
+            h = 31 * h + System.identityHashCode(rules);
+            this.hash = h ^ (h >>> 16);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && banks == other.banks && rules == other.rules && profile.equals(other.profile);
+        }
+    }
+
+    /**
+     * 스레드별 줄무늬 조회 기록 버퍼 (가득 차면 기록을 버리는 lossy 버퍼). drain은 LOCK 안에서만
+     */
+    private static final class ReadBuffer {
+        private static final int STRIPE_SIZE = 16;
+        // 줄무늬마다 카운터를 64바이트 간격으로 두어 false sharing을 피함
+        private static final int COUNT_SPACING = 16;
+        private final AtomicReferenceArray<Key> keys;
+        private final AtomicIntegerArray counts;
+        private final int stripeMask;
+
+        ReadBuffer() {
+            int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1) << 1;
+            this.keys = new AtomicReferenceArray<>(stripes * STRIPE_SIZE);
+            this.counts = new AtomicIntegerArray(stripes * COUNT_SPACING);
+            this.stripeMask = stripes - 1;
+        }
+
+        /**
+         * 기록을 넣는다. 줄무늬가 가득 찼으면(방금 채웠으면) false → 호출한 쪽이 drain 시도
+         */
+        boolean offer(Key key) {
+            int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+            int slot = stripe * COUNT_SPACING;
+            int n = counts.get(slot);
+            if (n < STRIPE_SIZE && counts.compareAndSet(slot, n, n + 1)) {
+                keys.lazySet(stripe * STRIPE_SIZE + n, key);
+                return n + 1 < STRIPE_SIZE;
+            }
+            return n < STRIPE_SIZE;
+        }
+
+        /** 쌓인 기록을 빈도와 LRU 순서에 반영 */
+        void drain() {
+            for (int stripe = 0; stripe <= stripeMask; stripe++) {
+                int slot = stripe * COUNT_SPACING;
+                int n = Math.min(counts.get(slot), STRIPE_SIZE);
+                for (int i = 0; i < n; i++) {
+                    Key key = keys.getAndSet(stripe * STRIPE_SIZE + i, null);
+                    if (key != null) {
+                        SKETCH.increment(key.hash);
+                        LRU.get(key);
+                    }
+                }
+                counts.set(slot, 0);
+            }
+        }
+    }
+
+    /**
+     * 4행 count-min sketch (4비트 카운터를 byte로 보관). LOCK 안에서만 사용
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(long maxWeight) {
+            // 항목당 평균 은행 수를 대략 10으로 보고 예상 항목 수의 2배 폭
+            long expected = Math.max(256L, Math.min(1L << 20, maxWeight / 5));
+            int width = Integer.highestOneBit((int) expected - 1) << 1;
+            this.table = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = width * 10;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                byte[] row = table[i];
+                int idx = index(hash, i);
+                if (row[idx] < 15) {
+                    row[idx]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int min = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                min = Math.min(min, table[i][index(hash, i)]);
+            }
+            return min;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 15)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
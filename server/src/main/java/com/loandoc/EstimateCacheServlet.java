@@ -0,0 +1,54 @@
+package com.loandoc;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 대출 예상 결과 캐시 상태
+ * GET  /api/server/estimate-cache  - 적중/미스/합류/축출/입장거부 건수와 현재 크기
+ * POST /api/server/estimate-cache  - 전체 비우기
+ */
+@WebServlet(urlPatterns = { "/api/server/estimate-cache" })
+public class EstimateCacheServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        resp.getWriter().print(mapper.writeValueAsString(stats()));
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        EstimateCache.clear();
+        resp.getWriter().print(mapper.writeValueAsString(stats()));
+    }
+
+    private ObjectNode stats() {
+        ObjectNode out = mapper.createObjectNode();
+        long hits = EstimateCache.hits();
+        long misses = EstimateCache.misses();
+        out.put("ok", true);
+        out.put("enabled", EstimateCache.MAX_WEIGHT > 0);
+        out.put("entries", EstimateCache.size());
+        out.put("weight", EstimateCache.weight());
+        out.put("maxWeight", EstimateCache.MAX_WEIGHT);
+        out.put("hits", hits);
+        out.put("misses", misses);
+        out.put("hitRate", hits + misses == 0 ? 0.0 : Math.round(hits * 10000.0 / (hits + misses)) / 10000.0);
+        out.put("coalesced", EstimateCache.coalesced());
+        out.put("evictions", EstimateCache.evictions());
+        out.put("rejected", EstimateCache.rejected());
+        return out;
+    }
+}
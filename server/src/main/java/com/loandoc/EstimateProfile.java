@@ -0,0 +1,38 @@
+package com.loandoc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * 대출 예상 요청의 심사 입력 (loginId 등 결과에 영향 없는 값 제외)
+ * 비자 종류는 정규화된 값(E9, F4 ...)으로 보관한다.
+ */
+record EstimateProfile(
+        String visaType,
+        String nationality,
+        int remainMonths,
+        double annualIncome,
+        int age,
+        int workingMonths,
+        String healthInsurance,
+        boolean testMode) {
+
+    /**
+     * 요청 JSON에서 읽는다. 필수 값(nationality, remainMonths, annualIncome, age, workingMonths, visaType)이
+     * 하나라도 없으면 null
+     */
+    static EstimateProfile from(JsonNode body, boolean testMode) {
+        if (!body.has("nationality") || !body.has("remainMonths") || !body.has("annualIncome")
+                || !body.has("age") || !body.has("workingMonths") || !body.has("visaType")) {
+            return null;
+        }
+        return new EstimateProfile(
+                VisaCode.normalize(body.get("visaType").asText()),
+                body.get("nationality").asText(),
+                body.get("remainMonths").asInt(),
+                body.get("annualIncome").asDouble(),
+                body.get("age").asInt(),
+                body.get("workingMonths").asInt(),
+                body.has("healthInsurance") ? body.get("healthInsurance").asText() : null,
+                testMode);
+    }
+}
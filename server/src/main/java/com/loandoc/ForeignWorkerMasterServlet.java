@@ -3,7 +3,6 @@ package com.loandoc;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.Date;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -21,19 +20,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 @WebServlet(urlPatterns = { "/api/foreign_worker_master" })
 public class ForeignWorkerMasterServlet extends HttpServlet {
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/loandoc";
-    private static final String DB_USER = "postgres";
-    private static final String DB_PASSWORD = "postgres";
-
-    @Override
-    public void init() throws ServletException {
-        super.init();
-        try {
-            Class.forName("org.postgresql.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new ServletException("PostgreSQL JDBC Driver not found", e);
-        }
-    }
 
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
@@ -70,7 +56,7 @@ public class ForeignWorkerMasterServlet extends HttpServlet {
             Connection conn = null;
             PreparedStatement stmt = null;
             try {
-                conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                conn = Database.getConnection();
                 String updateSql = "UPDATE foreign_worker_master SET req_date = CURRENT_TIMESTAMP WHERE user_id = ?";
                 stmt = conn.prepareStatement(updateSql);
                 stmt.setString(1, loginId.trim());
@@ -142,7 +128,7 @@ public class ForeignWorkerMasterServlet extends HttpServlet {
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
 
             // Check if user_id exists
             String checkSql = "SELECT COUNT(*) FROM foreign_worker_master WHERE user_id = ?";
@@ -313,7 +299,7 @@ public class ForeignWorkerMasterServlet extends HttpServlet {
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
 
             String selectSql = "SELECT user_id, name, nationality, passport_number, " +
                     "birth_date, entry_date, phone_number, current_company, email " +
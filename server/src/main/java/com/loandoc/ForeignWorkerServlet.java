@@ -2,7 +2,6 @@ package com.loandoc;
 
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -18,13 +17,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 @WebServlet(urlPatterns = {"/api/foreign_worker_master/*"})
 public class ForeignWorkerServlet extends HttpServlet {
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/loandoc";
-    private static final String DB_USER = "postgres";
-    private static final String DB_PASSWORD = "postgres";
-
-    static {
-        try { Class.forName("org.postgresql.Driver"); } catch (ClassNotFoundException e) { e.printStackTrace(); }
-    }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
@@ -52,7 +44,7 @@ public class ForeignWorkerServlet extends HttpServlet {
 
         Connection conn = null; PreparedStatement stmt = null; ResultSet rs = null;
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "SELECT name, phone_number, nationality FROM foreign_worker_master WHERE user_id = ? LIMIT 1";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, userId);
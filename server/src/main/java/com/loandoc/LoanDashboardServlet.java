@@ -1,13 +1,15 @@
 package com.loandoc;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.logging.Logger;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -21,20 +23,12 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 // 서블릿 매핑은 web.xml에 정의됨
 public class LoanDashboardServlet extends HttpServlet {
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/loandoc";
-    private static final String DB_USER = "postgres";
-    private static final String DB_PASSWORD = "postgres";
     private static final long serialVersionUID = 1L;
-    
-    static {
-        try {
-            // Ensure the PostgreSQL JDBC driver is loaded and registered with DriverManager
-            Class.forName("org.postgresql.Driver");
-        } catch (ClassNotFoundException e) {
-            // If driver is not available, keep going; errors will be reported when attempting connections
-            e.printStackTrace();
-        }
-    }
+    private static final Logger logger = Logger.getLogger(LoanDashboardServlet.class.getName());
+
+    // 목록 페이지 크기 (limit 파라미터 기본값/상한)
+    private static final int MAX_PAGE_SIZE = Math.max(1, readInt("LOAN_DASHBOARD_MAX_PAGE_SIZE", 200));
+    private static final int DEFAULT_PAGE_SIZE = Math.max(1, Math.min(MAX_PAGE_SIZE, readInt("LOAN_DASHBOARD_PAGE_SIZE", 50)));
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
@@ -55,11 +49,25 @@ public class LoanDashboardServlet extends HttpServlet {
                 resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid ID\"}");
             }
         } else {
-            // list: /api/loan_dashboard?q=&req_type=&order=(asc|desc)
+            // list: /api/loan_dashboard?q=&req_type=&order=(asc|desc)&limit=&cursor=&facets=true
             String q = req.getParameter("q");
             String reqType = req.getParameter("req_type");
-            String order = req.getParameter("order");
-            listRequests(q, reqType, order, resp, mapper);
+            Sort sort = Sort.of(req.getParameter("order"), !BoardSearch.terms(q).isEmpty());
+            if (sort == null) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid order\"}");
+                return;
+            }
+            Cursor after;
+            try {
+                after = Cursor.decode(req.getParameter("cursor"));
+            } catch (IllegalArgumentException e) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid cursor\"}");
+                return;
+            }
+            int limit = parseLimit(req.getParameter("limit"));
+            listRequests(q, reqType, sort, after, limit, "true".equalsIgnoreCase(req.getParameter("facets")), resp, mapper);
         }
         // (테스트용) 임시 응답 코드 예시
         // resp.getWriter().write("{\"ok\": true, \"rows\": []}");
@@ -147,52 +155,109 @@ public class LoanDashboardServlet extends HttpServlet {
         }
     }
 
-    private void listRequests(String q, String reqType, String order, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
+    /**
+     * 상담요청 목록 (요약: content 제외, 본문은 GET /api/loan_dashboard/{id})
+     * req_id 키셋 페이지: 이전 페이지 마지막 req_id 다음부터 limit+1건만 읽으므로 테이블 크기/페이지 깊이와 상관없이 일정하다.
+     * q가 있으면 관련도(rank) 순 (order를 지정하면 req_id 순), 각 행에 rank와 하이라이트된 snippet을 붙인다.
+     *   limit  : 페이지 크기 (기본 LOAN_DASHBOARD_PAGE_SIZE=50, 최대 LOAN_DASHBOARD_MAX_PAGE_SIZE=200)
+     *   cursor : 이전 응답의 next_cursor (없으면 첫 페이지)
+     *   facets : true면 검색어 조건 기준 req_type별 건수(facets)와 현재 필터 건수(total)를 집계 쿼리 한 번으로 함께 보냄
+     */
+    private void listRequests(String q, String reqType, Sort sort, Cursor after, int limit, boolean facets, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
+        List<String> terms = BoardSearch.terms(q);
+        if (after != null && after.sort != sort) {
+            // 정렬 기준이 다른 커서는 섞어 쓸 수 없음
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            resp.getWriter().write("{\"ok\":false,\"error\":\"Invalid cursor\"}");
+            return;
+        }
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            StringBuilder sql = new StringBuilder("SELECT req_id, req_login, counseler, name, phone_number, nationality, req_type, title, content, created_at, updated_at FROM loan_dashboard WHERE 1=1");
+            conn = Database.getConnection();
+            // 검색어: 트라이그램/tsvector GIN 인덱스 조건 (BoardSearch). 건수 집계에도 그대로 씀
+            StringBuilder match = new StringBuilder();
+            List<String> matchParams = new ArrayList<>();
+            BoardSearch.appendMatch(match, BoardSearch.Board.LOAN_DASHBOARD, terms, matchParams);
+
             List<String> params = new ArrayList<>();
-            if (reqType != null && !reqType.trim().isEmpty() && !reqType.equals("전체")) {
-                sql.append(" AND req_type = ?");
-                params.add(reqType);
+            String columns = "req_id, req_login, counseler, name, nationality, req_type, title, created_at, updated_at";
+            if (!terms.isEmpty()) {
+                columns += ", " + BoardSearch.rankExpr(BoardSearch.Board.LOAN_DASHBOARD, terms, params) + " AS rank, "
+                        + BoardSearch.snippetColumns(terms, params);
             }
-            if (q != null && !q.trim().isEmpty()) {
-                sql.append(" AND (title ILIKE ? OR content ILIKE ? OR req_login ILIKE ? OR name ILIKE ?)");
-                String p = "%" + q + "%";
-                params.add(p); params.add(p); params.add(p); params.add(p);
+            StringBuilder where = new StringBuilder(" WHERE 1=1");
+            String type = reqType != null && !reqType.trim().isEmpty() && !reqType.equals("전체") ? reqType : null;
+            if (type != null) {
+                // (req_type, req_id) 복합 인덱스 → 유형 필터 + req_id 순서를 한 번에
+                where.append(" AND req_type = ?");
+                params.add(type);
             }
-            // Allow optional ordering by req_id. Default is DESC (new requirement).
-            String ord = (order != null && order.equalsIgnoreCase("asc")) ? "ASC" : "DESC";
-            sql.append(" ORDER BY req_id " + ord);
+            where.append(match);
+            params.addAll(matchParams);
+
+            StringBuilder sql = new StringBuilder();
+            if (sort == Sort.RANK) {
+                sql.append("SELECT * FROM (SELECT ").append(columns).append(" FROM loan_dashboard").append(where).append(") s");
+                if (after != null) sql.append(" WHERE (s.rank, s.req_id) < (?, ?)");
+            } else {
+                sql.append("SELECT ").append(columns).append(" FROM loan_dashboard").append(where);
+                if (after != null) sql.append(sort == Sort.ASC ? " AND req_id > ?" : " AND req_id < ?");
+            }
+            // 정렬은 고정된 문자열 중에서만 고름. 다음 페이지 존재 여부 확인용으로 한 건 더 읽음
+            sql.append(" ORDER BY ").append(sort.orderBy).append(" LIMIT ?");
 
             stmt = conn.prepareStatement(sql.toString());
-            for (int i = 0; i < params.size(); i++) stmt.setString(i+1, params.get(i));
+            int index = 1;
+            for (String param : params) stmt.setString(index++, param);
+            if (after != null) {
+                if (sort == Sort.RANK) stmt.setFloat(index++, after.rank);
+                stmt.setInt(index++, after.reqId);
+            }
+            stmt.setInt(index, limit + 1);
 
             rs = stmt.executeQuery();
             ArrayNode rows = mapper.createArrayNode();
+            float lastRank = 0f;
+            int lastReqId = 0;
+            boolean hasMore = false;
             while (rs.next()) {
+                if (rows.size() == limit) { hasMore = true; break; }
                 ObjectNode row = mapper.createObjectNode();
-                row.put("req_id", rs.getInt("req_id"));
+                lastReqId = rs.getInt("req_id");
+                row.put("req_id", lastReqId);
                 row.put("req_login", rs.getString("req_login"));
                 row.put("counseler", rs.getString("counseler"));
                 row.put("name", rs.getString("name"));
-                row.put("phone_number", rs.getString("phone_number"));
                 row.put("nationality", rs.getString("nationality"));
                 row.put("req_type", rs.getString("req_type"));
                 row.put("title", rs.getString("title"));
-                row.put("content", rs.getString("content"));
                 row.put("created_at", rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toString() : "");
                 row.put("updated_at", rs.getTimestamp("updated_at") != null ? rs.getTimestamp("updated_at").toString() : "");
+                if (!terms.isEmpty()) {
+                    lastRank = rs.getFloat("rank");
+                    row.put("rank", lastRank);
+                    row.put("snippet", BoardSearch.snippet(rs, terms));
+                }
                 rows.add(row);
             }
 
             ObjectNode response = mapper.createObjectNode();
             response.put("ok", true);
             response.set("rows", rows);
+            response.put("has_more", hasMore);
+            if (hasMore) {
+                response.put("next_cursor", new Cursor(sort, lastRank, lastReqId).encode());
+            } else {
+                response.putNull("next_cursor");
+            }
+            if (facets) {
+                ObjectNode counts = countByType(conn, match.toString(), matchParams, mapper);
+                response.set("facets", counts);
+                response.put("total", counts.path(type != null ? type : "전체").asLong(0));
+            }
             resp.setStatus(HttpServletResponse.SC_OK);
             resp.getWriter().write(mapper.writeValueAsString(response));
 
@@ -205,10 +270,35 @@ public class LoanDashboardServlet extends HttpServlet {
         }
     }
 
+    /**
+     * 검색어 조건(req_type 필터 제외)에 맞는 req_type별 건수 + 전체 건수를 ROLLUP 집계 한 번으로 구한다.
+     * {"전체": n, "질문": n, ...} (req_type이 비어 있는 글은 "" 키)
+     */
+    private ObjectNode countByType(Connection conn, String match, List<String> matchParams, ObjectMapper mapper) throws SQLException {
+        String sql = "SELECT req_type, GROUPING(req_type) AS grand, count(*) FROM loan_dashboard WHERE 1=1" + match
+                + " GROUP BY ROLLUP (req_type)";
+        ObjectNode counts = mapper.createObjectNode();
+        counts.put("전체", 0L);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < matchParams.size(); i++) stmt.setString(i + 1, matchParams.get(i));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getInt("grand") == 1) {
+                        counts.put("전체", rs.getLong(3));
+                    } else {
+                        String type = rs.getString("req_type");
+                        counts.put(type != null ? type : "", rs.getLong(3));
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
     private void getRequest(int id, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
         Connection conn = null; PreparedStatement stmt = null; ResultSet rs = null;
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "SELECT req_id, req_login, counseler, name, phone_number, nationality, req_type, title, content, created_at, updated_at FROM loan_dashboard WHERE req_id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setInt(1, id);
@@ -241,7 +331,7 @@ public class LoanDashboardServlet extends HttpServlet {
     private void createRequest(String reqLogin, String counseler, String name, String phone, String nationality, String reqType, String title, String reqContent, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
         Connection conn = null; PreparedStatement stmt = null; ResultSet rs = null;
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "INSERT INTO loan_dashboard (req_login, counseler, name, phone_number, nationality, req_type, title, content) VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING req_id";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, reqLogin);
@@ -266,7 +356,7 @@ public class LoanDashboardServlet extends HttpServlet {
     private void updateRequest(int id, String counseler, String name, String phone, String nationality, String reqType, String title, String reqContent, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
         Connection conn = null; PreparedStatement stmt = null;
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "UPDATE loan_dashboard SET counseler = ?, name = ?, phone_number = ?, nationality = ?, req_type = ?, title = ?, content = ?, updated_at = CURRENT_TIMESTAMP WHERE req_id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, counseler);
@@ -292,7 +382,7 @@ public class LoanDashboardServlet extends HttpServlet {
     private void deleteRequest(int id, HttpServletResponse resp, ObjectMapper mapper) throws IOException {
         Connection conn = null; PreparedStatement stmt = null;
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             String sql = "DELETE FROM loan_dashboard WHERE req_id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setInt(1, id);
@@ -308,6 +398,85 @@ public class LoanDashboardServlet extends HttpServlet {
         } finally { closeResources(null, stmt, conn); }
     }
 
+    private static int parseLimit(String value) {
+        if (value == null || value.trim().isEmpty()) return DEFAULT_PAGE_SIZE;
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    private static int readInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /** 목록 정렬 (ORDER BY는 여기 정의된 문자열만 사용) */
+    private enum Sort {
+        DESC("req_id DESC"),
+        ASC("req_id ASC"),
+        RANK("s.rank DESC, s.req_id DESC");
+
+        final String orderBy;
+
+        Sort(String orderBy) {
+            this.orderBy = orderBy;
+        }
+
+        /** order 파라미터 → 정렬. 없으면 검색 중엔 관련도, 아니면 최신순. 알 수 없는 값이면 null */
+        static Sort of(String order, boolean searching) {
+            if (order == null || order.trim().isEmpty()) return searching ? RANK : DESC;
+            if (order.equalsIgnoreCase("desc")) return DESC;
+            if (order.equalsIgnoreCase("asc")) return ASC;
+            if (order.equalsIgnoreCase("rank")) return searching ? RANK : DESC;
+            return null;
+        }
+    }
+
+    /**
+     * 목록 페이지 커서: 정렬 + 마지막 글의 req_id (관련도 순이면 rank도). 응답에는 base64url 문자열로 내보낸다
+     */
+    private static final class Cursor {
+        final Sort sort;
+        final float rank;
+        final int reqId;
+
+        Cursor(Sort sort, float rank, int reqId) {
+            this.sort = sort;
+            this.rank = rank;
+            this.reqId = reqId;
+        }
+
+        String encode() {
+            String raw = sort.name() + "|" + (sort == Sort.RANK ? rank + "|" : "") + reqId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** 빈 값이면 null, 형식이 틀리면 IllegalArgumentException */
+        static Cursor decode(String value) {
+            if (value == null || value.trim().isEmpty()) return null;
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8).split("\\|");
+                Sort sort = Sort.valueOf(parts[0]);
+                if (parts.length != (sort == Sort.RANK ? 3 : 2)) {
+                    throw new IllegalArgumentException("Invalid cursor: " + value);
+                }
+                float rank = sort == Sort.RANK ? Float.parseFloat(parts[1]) : 0f;
+                return new Cursor(sort, rank, Integer.parseInt(parts[parts.length - 1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value, e);
+            }
+        }
+    }
+
     private void closeResources(ResultSet rs, PreparedStatement stmt, Connection conn) {
         try { if (rs != null) rs.close(); if (stmt != null) stmt.close(); if (conn != null) conn.close(); } catch (SQLException e) { e.printStackTrace(); }
     }
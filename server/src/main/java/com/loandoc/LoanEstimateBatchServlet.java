@@ -0,0 +1,302 @@
+package com.loandoc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 여러 지원자 대출 예상을 한 번에 심사 (상담사 포트폴리오용)
+ * POST /api/server/loan-estimate/batch[?testMode=true&topK=N]
+ *
+ * 요청: 지원자 프로필 JSON 배열 또는 NDJSON (한 줄에 하나, loan-estimate 요청 본문과 같은 필드 + 선택 id)
+ * 응답: application/x-ndjson. 끝난 순서대로 한 줄씩
+ *   {"index":0,"id":...,"ok":true,"banks":[...]}   index = 요청에서의 위치
+ *   {"index":3,"ok":false,"error":"..."}
+ * 마지막 줄은 {"done":true,"total":N,"failed":M,"elapsedMs":T}
+ *
+ * 은행 설정/규칙 스냅샷은 배치 전체에 한 번만 읽고, 지원자별 심사와 JSON 직렬화는
+ * 코어 수만큼의 작업 스레드에서 병렬로 한다.
+ */
+@WebServlet(urlPatterns = { "/api/server/loan-estimate/batch" })
+public class LoanEstimateBatchServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = Logger.getLogger(LoanEstimateBatchServlet.class.getName());
+
+    private static final int MAX_PROFILES = readInt("LOAN_ESTIMATE_BATCH_MAX", 1000);
+    private static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(readInt("LOAN_ESTIMATE_BATCH_DEADLINE_MS", 60000));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private transient ExecutorService workers;
+
+    /** 응답 한 줄 (직렬화된 JSON + 개행) */
+    private record Line(byte[] json, boolean ok) {
+    }
+
+    @Override
+    public void init() throws ServletException {
+        int threads = readInt("LOAN_ESTIMATE_BATCH_THREADS", Runtime.getRuntime().availableProcessors());
+        AtomicInteger seq = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "loan-estimate-batch-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean testMode = "true".equalsIgnoreCase(req.getParameter("testMode"));
+        int topK = parseInt(req.getParameter("topK"), 0);
+
+        List<ObjectNode> profiles;
+        try {
+            profiles = readProfiles(req);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            sendError(res, 400, "요청 형식 오류: " + e.getMessage());
+            return;
+        }
+        if (profiles == null) {
+            sendError(res, 413, "한 번에 최대 " + MAX_PROFILES + "건까지 요청할 수 있습니다");
+            return;
+        }
+        if (profiles.isEmpty()) {
+            sendError(res, 400, "지원자 프로필이 없습니다");
+            return;
+        }
+
+        // 배치 전체가 같은 은행 설정/규칙 스냅샷으로 심사됨
+        List<BankConfig> banks = BankConfigCache.get(testMode);
+        EligibilityRules rules = EligibilityRules.current();
+        EligibilityMatrix matrix = EligibilityMatrix.get(testMode, banks, rules);
+
+        CompletionService<Line> completion = new ExecutorCompletionService<>(workers);
+        List<Future<Line>> futures = new ArrayList<>(profiles.size());
+        Map<Future<Line>, Integer> indexOf = new IdentityHashMap<>(profiles.size() * 2);
+        for (int i = 0; i < profiles.size(); i++) {
+            int index = i;
+            ObjectNode body = profiles.get(i);
+            Future<Line> future = completion.submit(() -> evaluate(index, body, banks, rules, matrix, testMode, topK));
+            futures.add(future);
+            indexOf.put(future, index);
+        }
+
+        res.setStatus(200);
+        res.setContentType("application/x-ndjson");
+        res.setCharacterEncoding("UTF-8");
+        OutputStream out = res.getOutputStream();
+        long deadline = start + DEADLINE_NANOS;
+        boolean[] written = new boolean[profiles.size()];
+        int done = 0;
+        int failed = 0;
+        try {
+            while (done < profiles.size()) {
+                Future<Line> next = completion.poll(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                done++;
+                int index = indexOf.get(next);
+                Line line = result(next, index);
+                written[index] = true;
+                if (!line.ok()) {
+                    failed++;
+                }
+                out.write(line.json());
+                out.flush();
+            }
+            if (done < profiles.size()) {
+                // 마감 시각 초과: 남은 지원자는 취소하고 index별 오류 줄을 보냄 (막 끝난 것은 그대로 전송)
+                for (int i = 0; i < futures.size(); i++) {
+                    if (written[i]) {
+                        continue;
+                    }
+                    Future<Line> f = futures.get(i);
+                    Line line = f.cancel(true) ? errorLine(i, null, "timeout") : result(f, i);
+                    if (!line.ok()) {
+                        failed++;
+                    }
+                    out.write(line.json());
+                }
+                out.flush();
+            }
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                gen.writeStartObject();
+                gen.writeBooleanField("done", true);
+                gen.writeNumberField("total", profiles.size());
+                gen.writeNumberField("failed", failed);
+                gen.writeNumberField("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(futures);
+        } catch (IOException e) {
+            // 클라이언트 연결 종료: 남은 심사는 버림
+            cancelAll(futures);
+            logger.log(Level.FINE, "Batch response aborted", e);
+        }
+    }
+
+    /**
+     * 배열([...]) 또는 NDJSON(객체가 줄마다 이어짐)을 읽는다. MAX_PROFILES 초과면 null
+     */
+    private List<ObjectNode> readProfiles(HttpServletRequest req) throws IOException {
+        List<ObjectNode> profiles = new ArrayList<>();
+        try (JsonParser parser = mapper.getFactory().createParser(req.getInputStream())) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("지원자 프로필은 JSON 객체여야 합니다");
+                }
+                if (profiles.size() == MAX_PROFILES) {
+                    return null;
+                }
+                profiles.add(mapper.readTree(parser));
+                token = parser.nextToken();
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * 지원자 한 명 심사 후 응답 한 줄(개행 포함)을 만든다. 작업 스레드에서 실행
+     */
+    private Line evaluate(int index, ObjectNode body, List<BankConfig> banks, EligibilityRules rules,
+            EligibilityMatrix matrix, boolean testMode, int topK) throws IOException {
+        JsonNode id = body.has("id") ? body.get("id") : body.get("loginId");
+        EstimateProfile profile = EstimateProfile.from(body, testMode);
+        if (profile == null) {
+            return errorLine(index, id, "모든 필드가 필요합니다");
+        }
+        EligibilityRules.Applicant applicant = EligibilityRules.applicant(profile.visaType(), profile.nationality());
+        List<BankResult> results;
+        try {
+            results = EstimateCache.ranked(profile, banks, rules, topK,
+                    () -> LoanEstimator.evaluate(banks, rules, matrix, applicant, profile));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(256 + results.size() * 512);
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(buf, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeNumberField("index", index);
+            if (id != null) {
+                gen.writeFieldName("id");
+                gen.writeTree(id);
+            }
+            gen.writeBooleanField("ok", true);
+            LoanEstimator.writeBanks(gen, results, applicant, LoanEstimator.countryDebugFlags(applicant));
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        }
+        return new Line(buf.toByteArray(), true);
+    }
+
+    private Line errorLine(int index, JsonNode id, String error) throws IOException {
+        ObjectNode line = mapper.createObjectNode();
+        line.put("index", index);
+        if (id != null) {
+            line.set("id", id);
+        }
+        line.put("ok", false);
+        line.put("error", error);
+        return new Line((mapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    /**
+     * 끝난 작업의 결과. evaluate()는 지원자별 오류도 줄로 반환하므로 예외는 예상 밖의 오류
+     */
+    private Line result(Future<Line> future, int index) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "Batch estimate failed at index " + index, e.getCause());
+            return errorLine(index, null, "server error");
+        }
+    }
+
+    private static void cancelAll(List<Future<Line>> futures) {
+        for (Future<Line> f : futures) {
+            f.cancel(true);
+        }
+    }
+
+    private void sendError(HttpServletResponse res, int status, String message) throws IOException {
+        res.setStatus(status);
+        res.setContentType("application/json");
+        res.setCharacterEncoding("UTF-8");
+        ObjectNode error = mapper.createObjectNode();
+        error.put("ok", false);
+        error.put("error", message);
+        res.getWriter().write(mapper.writeValueAsString(error));
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static int readInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid " + key + " value '" + value + "', using default " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
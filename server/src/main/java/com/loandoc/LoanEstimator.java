@@ -0,0 +1,280 @@
+package com.loandoc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 대출 예상 심사 (은행별 검증, 한도 계산, 결과 JSON 기록)
+ * LoanEstimateServlet(한 건)과 LoanEstimateBatchServlet(여러 건)이 같이 사용한다.
+ */
+final class LoanEstimator {
+    private static final Logger logger = Logger.getLogger(LoanEstimator.class.getName());
+
+    // countryDebug 플래그 이름과 국적 코드
+    private static final String[] COUNTRY_DEBUG_NAMES = {
+        "isChina", "isIndia", "isUzbek", "isKazakh", "isVietnam", "isPhilippines", "isCambodia", "isNepal",
+        "isIndonesia", "isMyanmar", "isBangladesh", "isThailand", "isSriLanka", "isPakistan", "isKyrgyz",
+        "isLaos", "isTimor"
+    };
+    private static final CountryCode[] COUNTRY_DEBUG_CODES = {
+        CountryCode.CN, CountryCode.IN, CountryCode.UZ, CountryCode.KZ, CountryCode.VN, CountryCode.PH, CountryCode.KH,
+        CountryCode.NP, CountryCode.ID, CountryCode.MM, CountryCode.BD, CountryCode.TH, CountryCode.LK, CountryCode.PK,
+        CountryCode.KG, CountryCode.LA, CountryCode.TL
+    };
+
+    private LoanEstimator() {
+    }
+
+    /**
+     * 한 지원자를 은행 스냅샷 전체에 대해 차례로 심사한다 (배치용, 은행별 타임아웃 없음)
+     */
+    static List<BankResult> evaluate(List<BankConfig> banks, EligibilityRules rules, EligibilityMatrix matrix,
+            EligibilityRules.Applicant applicant, EstimateProfile profile) {
+        List<BankResult> results = new ArrayList<>(banks.size());
+        for (int i = 0; i < banks.size(); i++) {
+            results.add(processBank(banks.get(i), i, matrix, rules, applicant, profile));
+        }
+        return results;
+    }
+
+    /**
+     * "banks": [...] 배열을 기록한다
+     */
+    static void writeBanks(JsonGenerator gen, List<BankResult> results, EligibilityRules.Applicant applicant,
+            ObjectNode countryFlags) throws IOException {
+        gen.writeArrayFieldStart("banks");
+        for (BankResult result : results) {
+            writeBankResult(gen, result, applicant.natLower, countryFlags);
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * countryDebug에 표시하는 국적/비자 플래그 (요청당 한 번 계산)
+     */
+    static ObjectNode countryDebugFlags(EligibilityRules.Applicant applicant) {
+        ObjectNode flags = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < COUNTRY_DEBUG_CODES.length; i++) {
+            flags.put(COUNTRY_DEBUG_NAMES[i], applicant.country == COUNTRY_DEBUG_CODES[i]);
+        }
+        flags.put("isF4", applicant.visa == VisaCode.F4);
+        flags.put("isF2", applicant.visa == VisaCode.F2);
+        flags.put("isF5", applicant.visa == VisaCode.F5);
+        flags.put("isF6", applicant.visa == VisaCode.F6);
+        return flags;
+    }
+
+    /**
+     * 은행 결과를 응답에 기록한다 (화면이 읽는 기존 JSON 형태 그대로)
+     */
+    static void writeBankResult(JsonGenerator gen, BankResult r, String natLower, ObjectNode countryFlags)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("bankName", r.bankName());
+        if (r.isDegraded()) {
+            gen.writeBooleanField("degraded", true);
+            gen.writeStringField("degradedReason", r.degradedReason());
+        } else {
+            writeCheck(gen, "visaType", r.passed(BankResult.VISA_TYPE), r.visaTypeError());
+            writeCheck(gen, "country", r.passed(BankResult.COUNTRY), r.countryError());
+
+            // Expose country debug flags so frontend can display server logic details
+            gen.writeObjectFieldStart("countryDebug");
+            gen.writeStringField("natLower", natLower);
+            gen.writeBooleanField("countryValidComputed", r.countryValidComputed());
+            Iterator<Map.Entry<String, JsonNode>> flags = countryFlags.fields();
+            while (flags.hasNext()) {
+                Map.Entry<String, JsonNode> flag = flags.next();
+                gen.writeBooleanField(flag.getKey(), flag.getValue().booleanValue());
+            }
+            gen.writeEndObject();
+
+            writeCheck(gen, "age", r.passed(BankResult.AGE), "E나이");
+            writeCheck(gen, "visaExpiry", r.passed(BankResult.VISA_EXPIRY), "E비자만료");
+            writeCheck(gen, "employmentDate", r.passed(BankResult.EMPLOYMENT_DATE), "E재직일자");
+            writeCheck(gen, "annualIncome", r.passed(BankResult.ANNUAL_INCOME), "E연소득");
+            if (r.checked(BankResult.HEALTH_INSURANCE)) {
+                writeCheck(gen, "healthInsurance", r.passed(BankResult.HEALTH_INSURANCE), "E의료보험");
+            }
+        }
+        gen.writeNumberField("estimatedLimit", r.estimatedLimit());
+        if (Double.isNaN(r.estimatedRate())) {
+            gen.writeNullField("estimatedRate");
+        } else {
+            gen.writeNumberField("estimatedRate", r.estimatedRate());
+        }
+        if (r.rank() == BankResult.NONE) {
+            gen.writeNullField("rank");
+        } else {
+            gen.writeNumberField("rank", r.rank());
+        }
+        if (r.comm() == BankResult.NONE) {
+            gen.writeNullField("comm");
+        } else {
+            gen.writeNumberField("comm", r.comm());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeCheck(JsonGenerator gen, String field, boolean valid, String error) throws IOException {
+        gen.writeObjectFieldStart(field);
+        gen.writeBooleanField("valid", valid);
+        gen.writeStringField("error", valid ? "" : error);
+        gen.writeEndObject();
+    }
+
+    /**
+     * 은행 목록의 index번째 은행 심사. matrix가 있으면 비자/국적 결과를 표에서 읽고, 없으면 직접 계산한다.
+     */
+    static BankResult processBank(BankConfig bank, int index, EligibilityMatrix matrix, EligibilityRules rules,
+            EligibilityRules.Applicant applicant, EstimateProfile profile) {
+        if (matrix != null) {
+            return processBank(bank, matrix.rule(index), matrix.code(EligibilityMatrix.cell(applicant), index), applicant,
+                    profile);
+        }
+        EligibilityRules.BankRule rule = rules.forBank(bank.name);
+        return processBank(bank, rule, EligibilityMatrix.eligibility(bank, rule, applicant), applicant, profile);
+    }
+
+    /**
+     * 은행 한 곳 심사. 은행별 규칙/비트마스크 비교만 하므로 여러 스레드에서 동시에 호출해도 된다.
+     * eligibility = EligibilityMatrix.eligibility() 형식의 비자/국적 심사 코드
+     */
+    static BankResult processBank(BankConfig bank, EligibilityRules.BankRule rule, int eligibility,
+            EligibilityRules.Applicant applicant, EstimateProfile profile) {
+        int remainMonths = profile.remainMonths();
+        double annualIncome = profile.annualIncome();
+        int age = profile.age();
+        int workingMonths = profile.workingMonths();
+        String normalizedVisaType = profile.visaType();
+        String healthInsurance = profile.healthInsurance();
+        boolean testMode = profile.testMode();
+        int checks = BankResult.VISA_TYPE | BankResult.COUNTRY | BankResult.AGE | BankResult.VISA_EXPIRY
+                | BankResult.EMPLOYMENT_DATE | BankResult.ANNUAL_INCOME;
+        int valid = 0;
+
+        // 비자/국적 심사 결과 (EligibilityMatrix 셀 값 또는 직접 계산한 같은 코드)
+        String visaTypeError = EligibilityMatrix.visaError(rule);
+        if ((eligibility & EligibilityMatrix.VISA_OK) != 0) {
+            valid |= BankResult.VISA_TYPE;
+        }
+        boolean countryValidComputed = (eligibility & EligibilityMatrix.COUNTRY_COMPUTED_OK) != 0;
+        String countryError = EligibilityMatrix.countryError(eligibility, rule);
+        if ((eligibility & EligibilityMatrix.COUNTRY_OK) != 0) {
+            valid |= BankResult.COUNTRY;
+        } else if (EligibilityMatrix.reason(eligibility) >= EligibilityMatrix.REASON_DENY
+                && DebugLog.isEnabled(Level.FINE)) {
+            DebugLog.log(Level.FINE, "RULE_OVERRIDE: bank=" + bank.name + " nat=" + applicant.natLower + " visa=" + normalizedVisaType
+                    + " rule=" + rule.denyDescriptions[EligibilityMatrix.reason(eligibility) - EligibilityMatrix.REASON_DENY]);
+        }
+
+        // Age validation
+        boolean ageValid = age >= bank.minAge;
+        if (bank.maxAge != null) {
+            ageValid = ageValid && age <= bank.maxAge;
+        }
+        if (ageValid) {
+            valid |= BankResult.AGE;
+        }
+
+        // Visa expiry validation (잔여체류기간)
+        if (remainMonths >= bank.minVisaExpiryDays) {  // >= for inclusive comparison
+            valid |= BankResult.VISA_EXPIRY;
+        }
+
+        // Employment date validation
+        boolean employmentDateValid = workingMonths >= bank.minEmploymentDays;
+        
+        // 전북은행: E-9, E-7 비자만 재직기간 체크 (E-9: 1개월 이상, E-7: 1개월 이상)
+        // 그 외 비자는 재직기간 체크 안 함
+        if (bank.name.equals("전북은행")) {
+            if (applicant.visa == VisaCode.E9 || applicant.visa == VisaCode.E7) {
+                employmentDateValid = workingMonths >= 1;
+            } else {
+                // E-9, E-7 이외의 비자는 재직기간 체크 안 함 (항상 통과)
+                employmentDateValid = true;
+            }            
+        }
+        if (employmentDateValid) {
+            valid |= BankResult.EMPLOYMENT_DATE;
+        }
+
+        // Annual income validation
+        boolean annualIncomeValid = annualIncome >= bank.minAnnualIncome;
+        
+        // 전북은행: E-9 비자만 연소득 체크 (1500만원 이상)
+        // 그 외 비자는 연소득 체크 안 함
+        if (bank.name.equals("전북은행")) {
+            if (applicant.visa == VisaCode.E9) {
+                annualIncomeValid = annualIncome >= 1500;
+            } else {
+                // E-9 이외의 비자는 연소득 체크 안 함 (항상 통과)
+                annualIncomeValid = true;
+            }
+        }
+        if (annualIncomeValid) {
+            valid |= BankResult.ANNUAL_INCOME;
+        }
+
+        // Health insurance validation for KB저축은행
+        if (bank.name.equals("KB저축은행")) {
+            checks |= BankResult.HEALTH_INSURANCE;
+            boolean healthInsuranceValid = healthInsurance != null && !healthInsurance.equals("지역");
+            if (DebugLog.isEnabled(Level.FINE)) {
+                DebugLog.log(Level.FINE, "HEALTH_INSURANCE: bank=" + bank.name + " value=" + healthInsurance
+                        + " valid=" + healthInsuranceValid);
+            }
+            if (healthInsuranceValid) {
+                valid |= BankResult.HEALTH_INSURANCE;
+            }
+        }
+
+        // 예상한도 계산
+        double calculatedLimit;
+        double maxLimitValue;
+        
+        if (testMode) {
+            // testMode일 때: 연소득 × 잔여체류개월수 × 가중치 (test_bank_info의 weight를 100으로 나눈 값) / 10
+            // weightFactor는 이미 weight / 100.0으로 저장되어 있음
+            calculatedLimit = (annualIncome * remainMonths * bank.weightFactor) / 10.0;
+            // test_bank_info의 max_limit은 만원 단위이므로 그대로 사용
+            maxLimitValue = bank.maxLimit;
+            
+            // 디버그 로그 추가
+            logger.log(Level.INFO, String.format("[TEST MODE] 예상한도 계산 - 은행: %s, 연소득: %.0f, 잔여체류: %d, weightFactor: %.4f, calculatedLimit: %.2f, maxLimit: %.0f", 
+                bank.name, annualIncome, remainMonths, bank.weightFactor, calculatedLimit, maxLimitValue));
+        } else {
+            // 운영 모드: 기존 로직 유지
+            calculatedLimit = (annualIncome * remainMonths * bank.weightFactor) / 10.0;
+            maxLimitValue = bank.maxLimit;
+        }
+        
+        // 단, 최고한도를 초과할 수 없음
+        double finalLimit = Math.min(calculatedLimit, maxLimitValue);
+        
+        // 디버그 로그 추가
+        if (testMode) {
+            logger.log(Level.INFO, String.format("[TEST MODE] 최종 예상한도 - 은행: %s, calculatedLimit: %.2f, maxLimit: %.0f, finalLimit: %.0f", 
+                bank.name, calculatedLimit, maxLimitValue, finalLimit));
+        }
+        
+        // 소수점 이하 반올림
+        finalLimit = Math.round(finalLimit);
+        
+        return new BankResult(bank.name,
+                bank.rank != null ? bank.rank : BankResult.NONE,
+                bank.comm != null ? bank.comm : BankResult.NONE,
+                finalLimit, BankResult.roundedRate(bank), checks, valid,
+                visaTypeError, countryError, countryValidComputed, null);
+    }
+}
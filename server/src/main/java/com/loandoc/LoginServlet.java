@@ -1,13 +1,10 @@
 package com.loandoc;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,50 +41,12 @@ public class LoginServlet extends HttpServlet {
             return;
         }
 
-        // DB 연결 설정
-        String dbUrl = System.getenv("DB_URL");
-        String dbUser = System.getenv("DB_USER");
-        String dbPass = System.getenv("DB_PASSWORD");
-        String defaultDbName = "loandoc";
-
-        try {
-            String ctxUrl = getServletContext().getInitParameter("DB_URL");
-            String ctxUser = getServletContext().getInitParameter("DB_USER");
-            String ctxPass = getServletContext().getInitParameter("DB_PASSWORD");
-            if (dbUrl == null || dbUrl.isEmpty()) dbUrl = ctxUrl;
-            if (dbUser == null || dbUser.isEmpty()) dbUser = ctxUser;
-            if (dbPass == null || dbPass.isEmpty()) dbPass = ctxPass;
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No servlet context DB init params available", e);
-        }
-
-        Properties props = new Properties();
-        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
-            if (in != null) {
-                props.load(in);
-                if ((dbUrl == null || dbUrl.isEmpty()) && props.getProperty("DB_URL") != null) dbUrl = props.getProperty("DB_URL");
-                if ((dbUser == null || dbUser.isEmpty()) && props.getProperty("DB_USER") != null) dbUser = props.getProperty("DB_USER");
-                if ((dbPass == null || dbPass.isEmpty()) && props.getProperty("DB_PASSWORD") != null) dbPass = props.getProperty("DB_PASSWORD");
-            }
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No db.properties found on classpath", e);
-        }
-
-        if (dbUrl == null || dbUrl.isEmpty()) {
-            dbUrl = "jdbc:postgresql://localhost:5432/" + defaultDbName;
-        } else if (!dbUrl.startsWith("jdbc:")) {
-            dbUrl = "jdbc:postgresql://" + dbUrl;
-        }
-        if (dbUser == null || dbUser.isEmpty()) dbUser = "postgres";
-        if (dbPass == null || dbPass.isEmpty()) dbPass = "postgres";
-
         // DB에서 사용자 확인 및 비밀번호 검증
         boolean authenticated = false;
         String userName = null;
         
         try {
-            Class.forName("org.postgresql.Driver");
-            try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass)) {
+            try (Connection conn = Database.getConnection()) {
                 // user_account 테이블에서 bcrypt 해시 비밀번호 확인
                 String sql = "SELECT user_id, password FROM user_account WHERE user_id = ? LIMIT 1";
                 try (PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -117,7 +76,7 @@ public class LoginServlet extends HttpServlet {
                     }
                 }
             }
-        } catch (SQLException | ClassNotFoundException ex) {
+        } catch (SQLException ex) {
             logger.log(Level.SEVERE, "DB authentication failed: " + ex.getMessage(), ex);
         }
 
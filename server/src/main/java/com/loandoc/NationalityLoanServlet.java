@@ -2,7 +2,6 @@ package com.loandoc;
 
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -18,8 +17,6 @@ import javax.servlet.http.HttpServletResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import java.io.InputStream;
-import java.util.Properties;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 @WebServlet(urlPatterns = { "/api/nationality-loan" })
@@ -34,6 +31,11 @@ public class NationalityLoanServlet extends HttpServlet {
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        // 모드별 보관된 응답 재사용 (ETag 일치 시 304)
+        ReferenceCache.serve(ReferenceCache.Resource.NATIONALITY_LOAN, "test".equalsIgnoreCase(req.getParameter("mode")) ? "test" : "prod", req, resp, this::render);
+    }
+
+    private void render(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         req.setCharacterEncoding("UTF-8");
         resp.setContentType("application/json; charset=utf-8");
         resp.setCharacterEncoding("UTF-8");
@@ -44,65 +46,8 @@ public class NationalityLoanServlet extends HttpServlet {
         boolean isTestMode = "test".equalsIgnoreCase(mode);
         String tableName = isTestMode ? "test_nationality_loan" : "nationality_loan";
 
-        // Read DB connection settings
-        String dbUrl = System.getenv("DB_URL");
-        String dbUser = System.getenv("DB_USER");
-        String dbPass = System.getenv("DB_PASSWORD");
-        String defaultDbName = "loandoc";
-
-        // Servlet context init parameters
-        try {
-            String ctxUrl = getServletContext().getInitParameter("DB_URL");
-            String ctxUser = getServletContext().getInitParameter("DB_USER");
-            String ctxPass = getServletContext().getInitParameter("DB_PASSWORD");
-            if (dbUrl == null || dbUrl.isEmpty()) dbUrl = ctxUrl;
-            if (dbUser == null || dbUser.isEmpty()) dbUser = ctxUser;
-            if (dbPass == null || dbPass.isEmpty()) dbPass = ctxPass;
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No servlet context DB init params available", e);
-        }
-
-        // classpath properties file
-        Properties props = new Properties();
-        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
-            if (in != null) {
-                props.load(in);
-                if ((dbUrl == null || dbUrl.isEmpty()) && props.getProperty("DB_URL") != null) dbUrl = props.getProperty("DB_URL");
-                if ((dbUser == null || dbUser.isEmpty()) && props.getProperty("DB_USER") != null) dbUser = props.getProperty("DB_USER");
-                if ((dbPass == null || dbPass.isEmpty()) && props.getProperty("DB_PASSWORD") != null) dbPass = props.getProperty("DB_PASSWORD");
-            }
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No db.properties found on classpath", e);
-        }
-
-        // Defaults
-        if (dbUrl == null || dbUrl.isEmpty()) {
-            dbUrl = "jdbc:postgresql://localhost:5432/" + defaultDbName;
-        } else if (!dbUrl.startsWith("jdbc:")) {
-            dbUrl = "jdbc:postgresql://" + dbUrl;
-        }
-        if (dbUser == null || dbUser.isEmpty()) dbUser = "postgres";
-        if (dbPass == null || dbPass.isEmpty()) dbPass = "postgres";
-
         try {
-            try {
-                Class.forName("org.postgresql.Driver");
-            } catch (ClassNotFoundException e) {
-                logger.log(Level.WARNING, "PostgreSQL JDBC driver not found", e);
-            }
-            
-            java.util.Properties connProps = new java.util.Properties();
-            connProps.setProperty("user", dbUser);
-            connProps.setProperty("password", dbPass);
-            connProps.setProperty("prepareThreshold", "0");
-            
-            try (Connection conn = DriverManager.getConnection(dbUrl, connProps)) {
-                try (java.sql.Statement stmt = conn.createStatement()) {
-                    stmt.execute("SET client_encoding TO 'UTF8'");
-                } catch (SQLException e) {
-                    logger.log(Level.FINE, "Failed to set client_encoding", e);
-                }
-                
+            try (Connection conn = Database.getConnection()) {
                 String sql = "SELECT id, bank_name, product_name, eligible_visa, eligible_country, " +
                            "loan_limit_min, loan_limit_max, loan_period_min, loan_period_max, " +
                            "interest_rate_min, interest_rate_max, repayment_method, credit_rating, " +
@@ -243,65 +188,7 @@ public class NationalityLoanServlet extends HttpServlet {
             boolean isTestMode = "test".equalsIgnoreCase(mode);
             String tableName = isTestMode ? "test_nationality_loan" : "nationality_loan";
             
-            // DB 연결 설정
-            String dbUrl = System.getenv("DB_URL");
-            String dbUser = System.getenv("DB_USER");
-            String dbPass = System.getenv("DB_PASSWORD");
-            String defaultDbName = "loandoc";
-            
-            // Servlet context init parameters
-            try {
-                String ctxUrl = getServletContext().getInitParameter("DB_URL");
-                String ctxUser = getServletContext().getInitParameter("DB_USER");
-                String ctxPass = getServletContext().getInitParameter("DB_PASSWORD");
-                if (dbUrl == null || dbUrl.isEmpty()) dbUrl = ctxUrl;
-                if (dbUser == null || dbUser.isEmpty()) dbUser = ctxUser;
-                if (dbPass == null || dbPass.isEmpty()) dbPass = ctxPass;
-            } catch (Exception e) {
-                logger.log(Level.FINE, "No servlet context DB init params available", e);
-            }
-            
-            // classpath properties file
-            Properties props = new Properties();
-            try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
-                if (in != null) {
-                    props.load(in);
-                    if ((dbUrl == null || dbUrl.isEmpty()) && props.getProperty("DB_URL") != null) dbUrl = props.getProperty("DB_URL");
-                    if ((dbUser == null || dbUser.isEmpty()) && props.getProperty("DB_USER") != null) dbUser = props.getProperty("DB_USER");
-                    if ((dbPass == null || dbPass.isEmpty()) && props.getProperty("DB_PASSWORD") != null) dbPass = props.getProperty("DB_PASSWORD");
-                }
-            } catch (Exception e) {
-                logger.log(Level.FINE, "No db.properties found on classpath or failed to load", e);
-            }
-            
-            // Defaults
-            if (dbUrl == null || dbUrl.isEmpty()) {
-                dbUrl = "jdbc:postgresql://localhost:5432/" + defaultDbName;
-            } else if (!dbUrl.startsWith("jdbc:")) {
-                dbUrl = "jdbc:postgresql://" + dbUrl;
-            }
-            if (dbUser == null || dbUser.isEmpty()) dbUser = "postgres";
-            if (dbPass == null || dbPass.isEmpty()) dbPass = "postgres";
-            
-            try {
-                Class.forName("org.postgresql.Driver");
-            } catch (ClassNotFoundException e) {
-                logger.log(Level.WARNING, "PostgreSQL JDBC driver not found on classpath", e);
-            }
-            
-            // 연결 속성 설정
-            java.util.Properties connProps = new java.util.Properties();
-            connProps.setProperty("user", dbUser);
-            connProps.setProperty("password", dbPass);
-            connProps.setProperty("prepareThreshold", "0");
-            try (Connection conn = DriverManager.getConnection(dbUrl, connProps)) {
-                // PostgreSQL 클라이언트 인코딩을 UTF-8로 설정
-                try (java.sql.Statement stmt = conn.createStatement()) {
-                    stmt.execute("SET client_encoding TO 'UTF8'");
-                } catch (SQLException e) {
-                    logger.log(Level.FINE, "Failed to set client_encoding, continuing anyway", e);
-                }
-                
+            try (Connection conn = Database.getConnection()) {
                 // UPDATE 쿼리 구성
                 if (!requestData.has("id") || requestData.get("id").isNull()) {
                     result.put("ok", false);
@@ -424,6 +311,7 @@ public class NationalityLoanServlet extends HttpServlet {
                     
                     int rowsAffected = updatePs.executeUpdate();
                     if (rowsAffected > 0) {
+                        ReferenceCache.invalidate(ReferenceCache.Resource.NATIONALITY_LOAN);
                         result.put("ok", true);
                         result.put("message", "업데이트 성공");
                     } else {
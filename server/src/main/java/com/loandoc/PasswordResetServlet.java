@@ -1,13 +1,10 @@
 package com.loandoc;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Properties;
 import java.util.Random;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,14 +44,8 @@ public class PasswordResetServlet extends HttpServlet {
             return;
         }
 
-        // DB 연결 설정
-        String dbUrl = getDbUrl();
-        String dbUser = getDbUser();
-        String dbPass = getDbPassword();
-
         try {
-            Class.forName("org.postgresql.Driver");
-            try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass)) {
+            try (Connection conn = Database.getConnection()) {
                 // 1. user_account와 foreign_worker_master를 조인하여 이메일 확인
                 String checkSql = "SELECT ua.user_id, fwm.email " +
                                  "FROM user_account ua " +
@@ -156,7 +147,7 @@ public class PasswordResetServlet extends HttpServlet {
                     }
                 }
             }
-        } catch (SQLException | ClassNotFoundException ex) {
+        } catch (SQLException ex) {
             resp.setStatus(500);
             response.put("ok", false);
             response.put("error", "서버 오류가 발생했습니다");
@@ -178,98 +169,4 @@ public class PasswordResetServlet extends HttpServlet {
         }
         return sb.toString();
     }
-    
-    /**
-     * DB URL 가져오기
-     */
-    private String getDbUrl() {
-        String dbUrl = System.getenv("DB_URL");
-        
-        try {
-            String ctxUrl = getServletContext().getInitParameter("DB_URL");
-            if (dbUrl == null || dbUrl.isEmpty()) dbUrl = ctxUrl;
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No servlet context DB_URL", e);
-        }
-        
-        Properties props = new Properties();
-        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
-            if (in != null) {
-                props.load(in);
-                if ((dbUrl == null || dbUrl.isEmpty()) && props.getProperty("DB_URL") != null) {
-                    dbUrl = props.getProperty("DB_URL");
-                }
-            }
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No db.properties found", e);
-        }
-        
-        if (dbUrl == null || dbUrl.isEmpty()) {
-            dbUrl = "jdbc:postgresql://localhost:5432/loandoc";
-        } else if (!dbUrl.startsWith("jdbc:")) {
-            dbUrl = "jdbc:postgresql://" + dbUrl;
-        }
-        
-        return dbUrl;
-    }
-    
-    /**
-     * DB User 가져오기
-     */
-    private String getDbUser() {
-        String dbUser = System.getenv("DB_USER");
-        
-        try {
-            String ctxUser = getServletContext().getInitParameter("DB_USER");
-            if (dbUser == null || dbUser.isEmpty()) dbUser = ctxUser;
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No servlet context DB_USER", e);
-        }
-        
-        Properties props = new Properties();
-        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
-            if (in != null) {
-                props.load(in);
-                if ((dbUser == null || dbUser.isEmpty()) && props.getProperty("DB_USER") != null) {
-                    dbUser = props.getProperty("DB_USER");
-                }
-            }
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No db.properties found", e);
-        }
-        
-        if (dbUser == null || dbUser.isEmpty()) dbUser = "postgres";
-        
-        return dbUser;
-    }
-    
-    /**
-     * DB Password 가져오기
-     */
-    private String getDbPassword() {
-        String dbPass = System.getenv("DB_PASSWORD");
-        
-        try {
-            String ctxPass = getServletContext().getInitParameter("DB_PASSWORD");
-            if (dbPass == null || dbPass.isEmpty()) dbPass = ctxPass;
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No servlet context DB_PASSWORD", e);
-        }
-        
-        Properties props = new Properties();
-        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
-            if (in != null) {
-                props.load(in);
-                if ((dbPass == null || dbPass.isEmpty()) && props.getProperty("DB_PASSWORD") != null) {
-                    dbPass = props.getProperty("DB_PASSWORD");
-                }
-            }
-        } catch (Exception e) {
-            logger.log(Level.FINE, "No db.properties found", e);
-        }
-        
-        if (dbPass == null || dbPass.isEmpty()) dbPass = "postgresql";
-        
-        return dbPass;
-    }
 }
@@ -0,0 +1,77 @@
+package com.loandoc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * 커넥션 풀 대기시간/사용시간/타임아웃 누적 카운터
+ * HikariCP가 커넥션을 빌려줄 때마다 콜백하므로 요청 스레드에서는 LongAdder 증가만 일어난다.
+ */
+final class PoolMetrics implements MetricsTrackerFactory {
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder usageCount = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                created.increment();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireCount.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageCount.increment();
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    long acquireCount() {
+        return acquireCount.sum();
+    }
+
+    double avgWaitMillis() {
+        long n = acquireCount.sum();
+        return n == 0 ? 0.0 : acquireNanos.sum() / (double) n / 1_000_000.0;
+    }
+
+    double maxWaitMillis() {
+        return maxAcquireNanos.get() / 1_000_000.0;
+    }
+
+    double avgUsageMillis() {
+        long n = usageCount.sum();
+        return n == 0 ? 0.0 : usageMillis.sum() / (double) n;
+    }
+
+    long timeouts() {
+        return timeouts.sum();
+    }
+
+    long connectionsCreated() {
+        return created.sum();
+    }
+}
@@ -0,0 +1,61 @@
+package com.loandoc;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * 커넥션 풀 상태 조회 (운영 모니터링용)
+ * GET /api/server/pool-stats
+ */
+@WebServlet(urlPatterns = { "/api/server/pool-stats" })
+public class PoolStatsServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        ObjectNode out = mapper.createObjectNode();
+
+        HikariPoolMXBean pool = Database.poolState();
+        if (pool == null) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            out.put("ok", false);
+            out.put("error", "connection pool not initialized");
+            resp.getWriter().print(mapper.writeValueAsString(out));
+            return;
+        }
+
+        PoolMetrics metrics = Database.metrics();
+        out.put("ok", true);
+        out.put("active", pool.getActiveConnections());
+        out.put("idle", pool.getIdleConnections());
+        out.put("total", pool.getTotalConnections());
+        out.put("waiting", pool.getThreadsAwaitingConnection());
+        out.put("acquired", metrics.acquireCount());
+        out.put("avgWaitMs", metrics.avgWaitMillis());
+        out.put("maxWaitMs", metrics.maxWaitMillis());
+        out.put("avgUsageMs", metrics.avgUsageMillis());
+        out.put("timeouts", metrics.timeouts());
+        out.put("created", metrics.connectionsCreated());
+        ObjectNode debugLog = out.putObject("debugLog");
+        debugLog.put("path", DebugLog.path().toString());
+        debugLog.put("written", DebugLog.written());
+        debugLog.put("pending", DebugLog.pending());
+        debugLog.put("dropped", DebugLog.dropped());
+        ObjectNode dashboardViews = out.putObject("dashboardViews");
+        dashboardViews.put("trackedPosts", ViewCounter.trackedPosts());
+        dashboardViews.put("flushed", ViewCounter.flushed());
+        dashboardViews.put("failures", ViewCounter.failures());
+        resp.getWriter().print(mapper.writeValueAsString(out));
+    }
+}
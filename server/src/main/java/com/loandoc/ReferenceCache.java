@@ -0,0 +1,275 @@
+package com.loandoc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * 기준 데이터 GET 응답 캐시 + 조건부 요청(ETag / Last-Modified → 304)
+ *
+ * 은행 정보, 국적별 대출 상품, 약관 그룹/목록/본문처럼 거의 안 바뀌는 응답을 (자원, 키)별로 본문 바이트째 보관한다.
+ * - ETag는 본문 SHA-256 (강한 검증자). 다시 만들어도 내용이 같으면 같은 ETag, Last-Modified도 유지
+ * - 보관 중인 응답이 유효하면 If-None-Match / If-Modified-Since에 DB 조회 없이 304로 답한다
+ * - 수정 API(BankInfoServlet/NationalityLoanServlet doPut, EncodingRepair)는 invalidate()로 세대 번호를 올리고,
+ *   관리 화면을 거치지 않은 DB 직접 수정에 대비해 REFERENCE_CACHE_TTL_MS(기본 60000)가 지나면 다시 만든다
+ * - 200이 아니거나 DB 대신 예비 데이터(X-Data-Source: fallback)를 보낸 응답은 보관하지 않는다
+ */
+final class ReferenceCache {
+    private static final Logger logger = Logger.getLogger(ReferenceCache.class.getName());
+
+    private static final long TTL_MILLIS = readTtlMillis();
+    // 키는 요청 파라미터에서 오므로 개수 제한 (넘으면 비움)
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final ConcurrentHashMap<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    /** 캐시 자원과 브라우저 Cache-Control */
+    enum Resource {
+        // 관리 화면에서 금리/한도를 바꾸면 바로 보여야 하므로 매번 재검증 (대부분 304)
+        BANK_INFO("no-cache"),
+        NATIONALITY_LOAN("no-cache"),
+        // 약관은 배포 때만 바뀜
+        DOCUMENT_GROUPS("public, max-age=300"),
+        GROUP_DETAILS("public, max-age=300"),
+        DOCUMENT_CONTENT("public, max-age=600");
+
+        final String cacheControl;
+        final AtomicLong generation = new AtomicLong();
+
+        Resource(String cacheControl) {
+            this.cacheControl = cacheControl;
+        }
+    }
+
+    /** 원래 doGet 본문 (응답을 쓰는 쪽) */
+    interface Renderer {
+        void render(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException;
+    }
+
+    private static final class Entry {
+        final long generation;
+        final long storedAt;
+        final String etag;
+        final long lastModified;   // 초 단위로 자른 밀리초
+        final String contentType;
+        final String dataSource;
+        final byte[] body;
+
+        Entry(long generation, long storedAt, String etag, long lastModified, String contentType, String dataSource,
+                byte[] body) {
+            this.generation = generation;
+            this.storedAt = storedAt;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.dataSource = dataSource;
+            this.body = body;
+        }
+    }
+
+    private ReferenceCache() {
+    }
+
+    /**
+     * 보관 중인 응답이 유효하면 그대로(또는 304), 아니면 renderer로 새로 만들어 보관하고 보낸다
+     */
+    static void serve(Resource resource, String key, HttpServletRequest req, HttpServletResponse resp,
+            Renderer renderer) throws ServletException, IOException {
+        String mapKey = resource.name() + ":" + key;
+        Entry entry = ENTRIES.get(mapKey);
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.generation == resource.generation.get() && now - entry.storedAt < TTL_MILLIS) {
+            send(resource, entry, req, resp);
+            return;
+        }
+
+        long generation = resource.generation.get();
+        CapturingResponse capture = new CapturingResponse(resp);
+        renderer.render(req, capture);
+        byte[] body = capture.body();
+        String dataSource = resp.getHeader("X-Data-Source");
+        if (resp.getStatus() != HttpServletResponse.SC_OK || "fallback".equals(dataSource)) {
+            resp.setHeader("Cache-Control", "no-store");
+            resp.setContentLength(body.length);
+            resp.getOutputStream().write(body);
+            return;
+        }
+
+        String etag = etag(body);
+        // 내용이 그대로면 처음 만든 시각 유지
+        long lastModified = entry != null && entry.etag.equals(etag) ? entry.lastModified : now / 1000L * 1000L;
+        Entry fresh = new Entry(generation, now, etag, lastModified, resp.getContentType(), dataSource, body);
+        if (resource.generation.get() == generation) {
+            if (ENTRIES.size() >= MAX_ENTRIES && !ENTRIES.containsKey(mapKey)) {
+                ENTRIES.clear();
+            }
+            ENTRIES.put(mapKey, fresh);
+        }
+        send(resource, fresh, req, resp);
+    }
+
+    /**
+     * 자원 데이터가 바뀌었음 (보관 중인 응답을 다음 요청부터 쓰지 않음)
+     */
+    static void invalidate(Resource resource) {
+        resource.generation.incrementAndGet();
+        logger.fine("Reference cache invalidated: " + resource);
+    }
+
+    static int size() {
+        return ENTRIES.size();
+    }
+
+    private static void send(Resource resource, Entry entry, HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        resp.setHeader("ETag", entry.etag);
+        resp.setDateHeader("Last-Modified", entry.lastModified);
+        resp.setHeader("Cache-Control", resource.cacheControl);
+        if (notModified(req, entry)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_OK);
+        if (entry.contentType != null) {
+            resp.setContentType(entry.contentType);
+        }
+        if (entry.dataSource != null) {
+            resp.setHeader("X-Data-Source", entry.dataSource);
+        }
+        resp.setContentLength(entry.body.length);
+        resp.getOutputStream().write(entry.body);
+    }
+
+    /** If-None-Match가 있으면 그것만, 없으면 If-Modified-Since로 판단 */
+    private static boolean notModified(HttpServletRequest req, Entry entry) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(entry.etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= 0 && entry.lastModified <= ifModifiedSince;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 본문만 메모리에 모으는 응답 (상태/헤더는 원래 응답에 그대로 설정됨)
+     */
+    private static final class CapturingResponse extends HttpServletResponseWrapper {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse resp) {
+            super(resp);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (stream == null) {
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        buffer.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        buffer.write(b, off, len);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        throw new IllegalStateException("async I/O not supported");
+                    }
+                };
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                String encoding = getCharacterEncoding();
+                writer = new PrintWriter(new OutputStreamWriter(buffer,
+                        encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            // 실제 길이는 serve에서 설정
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        @Override
+        public void flushBuffer() {
+            // 커밋하지 않음 (serve에서 한 번에 보냄)
+        }
+
+        byte[] body() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    private static long readTtlMillis() {
+        String value = System.getenv("REFERENCE_CACHE_TTL_MS");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(0L, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid REFERENCE_CACHE_TTL_MS value '" + value + "', using default 60000");
+            }
+        }
+        return 60000L;
+    }
+}
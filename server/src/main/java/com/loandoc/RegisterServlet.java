@@ -8,7 +8,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -84,67 +83,16 @@ public class RegisterServlet extends HttpServlet {
                 return;
             }
 
-            // Read DB connection settings from env (optional)
-            String dbUrl = System.getenv("DB_URL");
-            String dbUser = System.getenv("DB_USER");
-            String dbPass = System.getenv("DB_PASSWORD");
-            String defaultDbName = "loandoc";
-
-            logger.info("Environment variables - DB_URL: " + (dbUrl != null ? dbUrl : "null") +
-                    ", DB_USER: " + (dbUser != null ? dbUser : "null") +
-                    ", DB_PASSWORD: " + (dbPass != null ? "[SET]" : "null"));
-
-            if (dbUrl == null || dbUrl.isEmpty()) {
-                dbUrl = "jdbc:postgresql://localhost:5432/" + defaultDbName;
-                logger.info("Using default DB URL: " + dbUrl);
-            } else if (!dbUrl.startsWith("jdbc:")) {
-                dbUrl = "jdbc:postgresql://" + dbUrl;
-                logger.info("Prepending jdbc: to DB URL: " + dbUrl);
-            }
-            // ensure DB name present in jdbc url; if missing, append default DB name
-            try {
-                int idx = dbUrl.indexOf('/', "jdbc:postgresql://".length());
-                if (idx == -1) {
-                    if (!dbUrl.endsWith("/"))
-                        dbUrl = dbUrl + "/" + defaultDbName;
-                    else
-                        dbUrl = dbUrl + defaultDbName;
-                    logger.info("Appended default DB name, final URL: " + dbUrl);
-                }
-            } catch (Exception e) {
-                logger.warning("Error processing DB URL: " + e.getMessage());
-                // ignore, keep provided dbUrl
-            }
-
-            if (dbUser == null) {
-                dbUser = "postgres";
-                logger.info("Using default DB user: " + dbUser);
-            }
-            if (dbPass == null) {
-                dbPass = "postgres";
-                logger.info("Using default DB password");
-            }
-
             boolean dbAvailable = false;
 
-            logger.info("Register attempt for user='" + id + "' using DB URL='" + dbUrl + "' user='" + dbUser + "'");
+            logger.info("Register attempt for user='" + id + "'");
 
             // Attempt INSERT-first into DB to avoid race conditions; on DB connection
             // failure fall back to file-based storage
             try {
-                logger.info("Attempting to load PostgreSQL JDBC driver...");
-                // Ensure JDBC driver is loaded in environments where ServiceLoader registration
-                // may not occur
-                try {
-                    Class.forName("org.postgresql.Driver");
-                    logger.info("PostgreSQL JDBC Driver loaded successfully");
-                } catch (ClassNotFoundException cnfe) {
-                    logger.log(Level.WARNING, "PostgreSQL JDBC Driver class not found on classpath", cnfe);
-                }
-
-                logger.info("Attempting database connection to: " + dbUrl);
+                logger.info("Borrowing database connection from pool");
                 long connStart = System.currentTimeMillis();
-                try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass)) {
+                try (Connection conn = Database.getConnection()) {
                     long connElapsed = System.currentTimeMillis() - connStart;
                     dbAvailable = true;
                     logger.info("Database connection established successfully (ms=" + connElapsed + ")");
@@ -241,10 +189,9 @@ public class RegisterServlet extends HttpServlet {
             if (!dbAvailable) {
                 logger.info("Database not available, checking file fallback option...");
                 // Decide whether to use file-based fallback. Default: enabled for backward
-                // compatibility.
-                String fallbackEnv = System.getenv("ENABLE_FILE_FALLBACK");
-                boolean useFileFallback = (fallbackEnv == null) ? true : fallbackEnv.equalsIgnoreCase("true");
-                logger.info("ENABLE_FILE_FALLBACK env var: " + fallbackEnv + ", useFileFallback: " + useFileFallback);
+                // compatibility. (ENABLE_FILE_FALLBACK, resolved once at startup in DbConfig)
+                boolean useFileFallback = DbConfig.from(getServletContext()).fileFallbackEnabled();
+                logger.info("useFileFallback: " + useFileFallback);
 
                 if (!useFileFallback) {
                     // If fallback is disabled, return 503 Service Unavailable to force DB
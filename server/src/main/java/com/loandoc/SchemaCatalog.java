@@ -0,0 +1,115 @@
+package com.loandoc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 테이블/컬럼 메타데이터 캐시
+ *
+ * 서블릿들이 요청마다 information_schema를 조회하던 "테이블 존재 / 컬럼 존재" 확인을 대체한다.
+ * 기동 시 DataSourceListener가 한 번 읽고, 마이그레이션 적용 후에는 refresh()
+ * (POST /api/server/schema-catalog)로 다시 읽는다. 조회는 불변 Map lookup이다.
+ */
+final class SchemaCatalog {
+    private static final Logger logger = Logger.getLogger(SchemaCatalog.class.getName());
+
+    private static final String COLUMNS_SQL = "SELECT table_name, column_name FROM information_schema.columns "
+            + "WHERE table_schema NOT IN ('pg_catalog', 'information_schema')";
+
+    private static volatile Map<String, Set<String>> tables;
+    private static volatile long loadedAt;
+    private static long lastAttemptAt;
+
+    // 기동 시 DB가 없을 때 요청마다 재시도하지 않도록 최소 간격
+    private static final long RETRY_INTERVAL_MS = 5000;
+
+    private SchemaCatalog() {
+    }
+
+    static boolean hasTable(String table) {
+        return snapshot().containsKey(key(table));
+    }
+
+    static boolean hasColumn(String table, String column) {
+        Set<String> columns = snapshot().get(key(table));
+        return columns != null && columns.contains(key(column));
+    }
+
+    /**
+     * 테이블별 컬럼 목록 (모니터링용)
+     */
+    static Map<String, Set<String>> tables() {
+        return snapshot();
+    }
+
+    /**
+     * 마지막으로 읽은 시각 (epoch millis). 아직 읽지 못했으면 0
+     */
+    static long loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * 메타데이터를 다시 읽는다. 실패하면 기존 스냅샷을 유지하고 false
+     */
+    static synchronized boolean refresh() {
+        lastAttemptAt = System.currentTimeMillis();
+        Map<String, Set<String>> loaded = load();
+        if (loaded == null) {
+            return false;
+        }
+        tables = loaded;
+        loadedAt = System.currentTimeMillis();
+        logger.info("Schema catalog loaded: " + loaded.size() + " tables");
+        // 컬럼 구성이 바뀌었을 수 있으므로 이를 기반으로 만든 스냅샷도 다시 읽게 한다
+        BankConfigCache.invalidate(false);
+        BankConfigCache.invalidate(true);
+        EligibilityRules.invalidate();
+        return true;
+    }
+
+    private static Map<String, Set<String>> snapshot() {
+        Map<String, Set<String>> snap = tables;
+        if (snap == null) {
+            // 기동 시 DB가 내려가 있었던 경우 첫 조회에서 다시 시도
+            synchronized (SchemaCatalog.class) {
+                if (tables == null && System.currentTimeMillis() - lastAttemptAt >= RETRY_INTERVAL_MS) {
+                    refresh();
+                }
+                snap = tables;
+            }
+        }
+        return snap != null ? snap : Collections.emptyMap();
+    }
+
+    private static Map<String, Set<String>> load() {
+        Map<String, Set<String>> result = new HashMap<>();
+        try (Connection conn = Database.getConnection();
+                PreparedStatement ps = conn.prepareStatement(COLUMNS_SQL);
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                result.computeIfAbsent(key(rs.getString(1)), k -> new HashSet<>()).add(key(rs.getString(2)));
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING, "Failed to load schema catalog: " + ex.getMessage());
+            return null;
+        }
+        Map<String, Set<String>> frozen = new HashMap<>(result.size() * 2);
+        result.forEach((table, columns) -> frozen.put(table, Collections.unmodifiableSet(columns)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
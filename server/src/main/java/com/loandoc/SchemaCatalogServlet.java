@@ -0,0 +1,59 @@
+package com.loandoc;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 스키마 메타데이터 캐시 조회/갱신
+ * GET  /api/server/schema-catalog          - 캐시된 테이블/컬럼 목록
+ * POST /api/server/schema-catalog          - 마이그레이션 적용 후 다시 읽기
+ */
+@WebServlet(urlPatterns = { "/api/server/schema-catalog" })
+public class SchemaCatalogServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        ObjectNode out = mapper.createObjectNode();
+        Map<String, Set<String>> tables = SchemaCatalog.tables();
+        out.put("ok", true);
+        out.put("loadedAt", SchemaCatalog.loadedAt());
+        ObjectNode tablesNode = out.putObject("tables");
+        for (String table : new TreeSet<>(tables.keySet())) {
+            ArrayNode columns = tablesNode.putArray(table);
+            new TreeSet<>(tables.get(table)).forEach(columns::add);
+        }
+        resp.getWriter().print(mapper.writeValueAsString(out));
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json; charset=utf-8");
+        ObjectNode out = mapper.createObjectNode();
+        boolean refreshed = SchemaCatalog.refresh();
+        if (!refreshed) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            out.put("ok", false);
+            out.put("error", "database unavailable, keeping previous schema catalog");
+        } else {
+            out.put("ok", true);
+            out.put("tables", SchemaCatalog.tables().size());
+            out.put("loadedAt", SchemaCatalog.loadedAt());
+        }
+        resp.getWriter().print(mapper.writeValueAsString(out));
+    }
+}
@@ -0,0 +1,87 @@
+package com.loandoc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 빌드 때 정적 페이지를 미리 gzip으로 압축 (pom.xml prepare-package 단계에서 실행)
+ *
+ * 사용: java com.loandoc.StaticPrecompressor src/main/webapp target/precompressed
+ * 결과 "경로.gz"는 war에 원본과 같은 위치로 들어가고, CompressionFilter가 그대로 보낸다.
+ * 1KB 미만이거나 압축해도 10% 이상 줄지 않는 파일은 건너뜀
+ */
+public final class StaticPrecompressor {
+    private static final int MIN_BYTES = 1024;
+    private static final String[] EXTENSIONS = { ".html", ".css", ".js", ".svg", ".txt" };
+
+    private StaticPrecompressor() {
+    }
+
+    static boolean isCompressible(String path) {
+        String lower = path.toLowerCase(Locale.ROOT);
+        for (String ext : EXTENSIONS) {
+            if (lower.endsWith(ext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: StaticPrecompressor <webapp dir> <output dir>");
+            System.exit(1);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(p -> !source.relativize(p).startsWith("WEB-INF"))
+                    .filter(p -> isCompressible(p.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        long before = 0;
+        long after = 0;
+        int written = 0;
+        for (Path file : files) {
+            byte[] raw = Files.readAllBytes(file);
+            if (raw.length < MIN_BYTES) {
+                continue;
+            }
+            byte[] gz = gzip(raw);
+            if (gz.length > raw.length * 0.9) {
+                continue;
+            }
+            Path out = target.resolve(source.relativize(file).toString() + ".gz");
+            Files.createDirectories(out.getParent());
+            Files.write(out, gz);
+            before += raw.length;
+            after += gz.length;
+            written++;
+        }
+        System.out.println("Precompressed " + written + " files: " + before + " -> " + after + " bytes");
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 3);
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(raw);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,210 @@
+package com.loandoc;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * dashboard 조회수 write-behind 카운터
+ *
+ * GET /api/dashboard/{id} 마다 UPDATE를 하면 인기 글 한 행에 잠금이 몰리므로,
+ * 글별 LongAdder에 모아 두었다가 DASHBOARD_VIEW_FLUSH_MS(기본 5000)마다 한 번의 UPDATE(unnest 배열)로 반영한다.
+ * 조회 응답에는 DB 값 + 아직 반영 안 된 증가분(pending)을 더해 보여 준다.
+ *
+ * - 카운터는 반영된 양(flushed)을 따로 기록하고 리셋하지 않으므로, 반영 중에 들어온 증가분도 잃지 않는다.
+ * - DB 반영에 실패하면 다음 주기에 다시 시도한다 (flushed를 올리지 않음).
+ * - 두 주기 연속 증가가 없는 카운터는 맵에서 빼고, 막 빠질 때 들어온 증가분은 다음 주기에 한 번 더 확인한다.
+ */
+final class ViewCounter {
+    private static final Logger logger = Logger.getLogger(ViewCounter.class.getName());
+
+    private static final long FLUSH_MILLIS = readFlushMillis();
+    // 한 UPDATE에 넣는 글 수
+    private static final int CHUNK = 1000;
+
+    private static final ConcurrentHashMap<Integer, Counter> COUNTERS = new ConcurrentHashMap<>();
+    // 맵에서 뺀 뒤 한 주기 더 지켜보는 카운터 (flush 스레드만 사용)
+    private static List<Counter> retired = new ArrayList<>();
+
+    private static final AtomicLong FLUSHED = new AtomicLong();
+    private static final AtomicLong FAILURES = new AtomicLong();
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "dashboard-view-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        FLUSHER.scheduleWithFixedDelay(ViewCounter::flush, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private ViewCounter() {
+    }
+
+    private static final class Counter {
+        final int msgId;
+        final LongAdder views = new LongAdder();
+        // 아래는 flush 스레드만 씀 (flushed는 조회 스레드도 읽음)
+        volatile long flushed;
+        int idleFlushes;
+
+        Counter(int msgId) {
+            this.msgId = msgId;
+        }
+
+        long unflushed() {
+            return views.sum() - flushed;
+        }
+    }
+
+    /** 반영 대기 중인 증가분 한 건 */
+    private record Delta(Counter counter, long amount) {
+    }
+
+    static void increment(int msgId) {
+        COUNTERS.computeIfAbsent(msgId, Counter::new).views.increment();
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 조회수 (응답에 더해서 보여 줌)
+     */
+    static long pending(int msgId) {
+        Counter counter = COUNTERS.get(msgId);
+        return counter == null ? 0L : Math.max(0L, counter.unflushed());
+    }
+
+    static int trackedPosts() {
+        return COUNTERS.size();
+    }
+
+    static long flushed() {
+        return FLUSHED.get();
+    }
+
+    static long failures() {
+        return FAILURES.get();
+    }
+
+    /**
+     * 남은 증가분을 반영하고 flush 스레드를 멈춘다 (DataSourceListener.contextDestroyed, 커넥션 풀 종료 전)
+     */
+    static void shutdown() {
+        FLUSHER.shutdown();
+        try {
+            FLUSHER.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private static synchronized void flush() {
+        List<Delta> deltas = new ArrayList<>();
+        List<Counter> nowRetired = new ArrayList<>();
+        // 지난 주기에 뺀 카운터에 늦게 들어온 증가분
+        for (Counter counter : retired) {
+            long amount = counter.unflushed();
+            if (amount > 0) {
+                deltas.add(new Delta(counter, amount));
+            }
+        }
+        for (Map.Entry<Integer, Counter> e : COUNTERS.entrySet()) {
+            Counter counter = e.getValue();
+            long amount = counter.unflushed();
+            if (amount > 0) {
+                counter.idleFlushes = 0;
+                deltas.add(new Delta(counter, amount));
+            } else if (++counter.idleFlushes >= 2 && COUNTERS.remove(e.getKey(), counter)) {
+                nowRetired.add(counter);
+            }
+        }
+        if (deltas.isEmpty()) {
+            retired = nowRetired;
+            return;
+        }
+        // 여러 인스턴스가 같은 행들을 갱신해도 잠금 순서가 같도록 msg_id 순
+        deltas.sort(Comparator.comparingInt(d -> d.counter().msgId));
+        try {
+            write(deltas);
+            long total = 0;
+            for (Delta delta : deltas) {
+                delta.counter().flushed += delta.amount();
+                total += delta.amount();
+            }
+            FLUSHED.addAndGet(total);
+            retired = nowRetired;
+        } catch (SQLException | RuntimeException e) {
+            // 다음 주기에 다시 시도 (지난번에 뺀 카운터도 계속 확인)
+            FAILURES.incrementAndGet();
+            nowRetired.addAll(retired);
+            retired = nowRetired;
+            logger.log(Level.WARNING, "Dashboard view count flush failed (" + deltas.size() + " posts), will retry: "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * 같은 msg_id가 두 번(늦은 증가분 + 새 카운터) 나와도 UPDATE ... FROM 은 한 번만 적용하므로 미리 합친다
+     */
+    private static void write(List<Delta> deltas) throws SQLException {
+        List<Integer> ids = new ArrayList<>(deltas.size());
+        List<Long> amounts = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            int last = ids.size() - 1;
+            if (last >= 0 && ids.get(last) == delta.counter().msgId) {
+                amounts.set(last, amounts.get(last) + delta.amount());
+            } else {
+                ids.add(delta.counter().msgId);
+                amounts.add(delta.amount());
+            }
+        }
+        String sql = "UPDATE dashboard d SET views = coalesce(d.views, 0) + v.delta"
+                + " FROM unnest(?::int[], ?::bigint[]) AS v(msg_id, delta) WHERE d.msg_id = v.msg_id";
+        try (Connection conn = Database.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int from = 0; from < ids.size(); from += CHUNK) {
+                    int to = Math.min(ids.size(), from + CHUNK);
+                    Array idArray = conn.createArrayOf("integer", ids.subList(from, to).toArray());
+                    Array deltaArray = conn.createArrayOf("bigint", amounts.subList(from, to).toArray());
+                    stmt.setArray(1, idArray);
+                    stmt.setArray(2, deltaArray);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static long readFlushMillis() {
+        String value = System.getenv("DASHBOARD_VIEW_FLUSH_MS");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(100L, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid DASHBOARD_VIEW_FLUSH_MS value '" + value + "', using default 5000");
+            }
+        }
+        return 5000L;
+    }
+}
@@ -0,0 +1,59 @@
+package com.loandoc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 비자 종류 코드 사전
+ * "E-9", "e9", "E 9" 등 입력을 요청당 한 번 정규화해서 enum으로 바꾼 뒤 ordinal/비트로 비교한다.
+ */
+enum VisaCode {
+    E1, E2, E3, E4, E5, E6, E7, E8, E9, E10,
+    F1, F2, F3, F4, F5, F6,
+    H1, H2,
+    D2, D4, D8, D10,
+    UNKNOWN;
+
+    private static final Map<String, VisaCode> BY_CODE = new HashMap<>();
+
+    static {
+        for (VisaCode v : values()) {
+            if (v != UNKNOWN) {
+                BY_CODE.put(v.name(), v);
+            }
+        }
+    }
+
+    /** 비트마스크용 비트 (UNKNOWN은 0) */
+    long bit() {
+        return this == UNKNOWN ? 0L : 1L << ordinal();
+    }
+
+    static VisaCode parse(String visa) {
+        VisaCode code = BY_CODE.get(normalize(visa));
+        return code != null ? code : UNKNOWN;
+    }
+
+    /**
+     * 하이픈/공백 제거 후 대문자 (예: "E-9" -> "E9"). 정규식 없이 한 번 순회
+     */
+    static String normalize(String visa) {
+        if (visa == null) {
+            return "";
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < visa.length(); i++) {
+            char c = visa.charAt(i);
+            char u = Character.toUpperCase(c);
+            boolean skip = c == '-' || Character.isWhitespace(c);
+            if (sb == null && (skip || u != c)) {
+                sb = new StringBuilder(visa.length());
+                sb.append(visa, 0, i);
+            }
+            if (sb != null && !skip) {
+                sb.append(u);
+            }
+        }
+        return sb != null ? sb.toString() : visa;
+    }
+}